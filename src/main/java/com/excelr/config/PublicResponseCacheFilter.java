@@ -0,0 +1,272 @@
+package com.excelr.config;
+
+import com.excelr.controller.RatingController;
+import com.excelr.service.CacheMetrics;
+import com.excelr.service.impl.EventServiceImpl;
+import com.excelr.service.impl.ShowServiceImpl;
+import com.excelr.service.impl.VenueServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte-level cache for the hot public GET endpoints (event and venue catalog,
+ * shows of a venue, rating summaries and reviews).
+ *
+ * A cacheable 200 JSON response is stored as its encoded UTF-8 bytes, plus a
+ * gzip copy when it is large enough, keyed by path and sorted query params.
+ * Later requests are answered from those bytes without touching the
+ * controller or Jackson. Every response carries a strong ETag (the
+ * controller's version-based one if it set it, a body hash otherwise), so a
+ * client that sends a matching If-None-Match gets a 304 with no body.
+ *
+ * Entries are dropped by the domain events the write paths publish
+ * (EventsChanged, VenueChanged, ShowsChanged, RatingChanged); the TTL is only
+ * a safety net. A response computed while an invalidation ran is served but
+ * not stored, so stale bytes never enter the cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final List<Pattern> CACHEABLE = List.of(
+            Pattern.compile("/api/events(/\\d+)?"),
+            Pattern.compile("/api/venues(/\\d+)?"),
+            Pattern.compile("/api/shows/venue/\\d+"),
+            Pattern.compile("/api/ratings/[^/]+/[^/]+(/reviews)?"));
+
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${response-cache.max-bytes:67108864}") // 64 MB
+    private long maxBytes;
+
+    @Value("${response-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<String, CachedResponse> responses;
+
+    // Bumped on every invalidation; a response is only stored if no bump happened while it was built
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void initCache() {
+        responses = cacheMetrics.register("http.responses", Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.size())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return CACHEABLE.stream().noneMatch(pattern -> pattern.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String key = keyOf(request);
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        long startGeneration = generation.get();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || contentType == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                || request.isAsyncStarted()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        cached = CachedResponse.of(wrapper.getContentAsByteArray(), contentType,
+                wrapper.getHeader(HttpHeaders.ETAG), gzipMinBytes);
+        if (generation.get() == startGeneration) {
+            responses.put(key, cached);
+        }
+        wrapper.resetBuffer();
+        write(request, response, cached);
+    }
+
+    @EventListener
+    public void onEventsChanged(EventServiceImpl.EventsChanged change) {
+        evictPath("/api/events");
+        evictPath("/api/events/" + change.eventId());
+    }
+
+    @EventListener
+    public void onVenueChanged(VenueServiceImpl.VenueChanged change) {
+        evictPath("/api/venues");
+        evictPath("/api/venues/" + change.venueId());
+        evictPrefix("/api/events"); // events embed their venue
+        evictPath("/api/shows/venue/" + change.venueId());
+    }
+
+    @EventListener
+    public void onShowsChanged(ShowServiceImpl.ShowsChanged change) {
+        evictPath("/api/shows/venue/" + change.venueId());
+    }
+
+    // After RatingAggregateService has dropped the cached summary (see its listener)
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRatingChanged(RatingController.RatingChanged change) {
+        String path = "/api/ratings/" + change.itemType() + "/" + change.itemId();
+        evictPath(path);
+        evictPath(path + "/reviews");
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached)
+            throws IOException {
+        boolean gzip = cached.gzipBody() != null && acceptsGzip(request);
+        String etag = gzip ? cached.gzipEtag() : cached.etag();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? cached.gzipBody() : cached.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // All entries for a path, whatever their query params
+    private void evictPath(String path) {
+        generation.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> key.equals(path) || key.startsWith(path + "?"));
+    }
+
+    private void evictPrefix(String prefix) {
+        generation.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        if (params.isEmpty()) {
+            return path;
+        }
+        StringBuilder key = new StringBuilder(path).append('?');
+        params.forEach((name, values) -> {
+            for (String value : values) {
+                key.append(name).append('=').append(value).append('&');
+            }
+        });
+        key.setLength(key.length() - 1);
+        return key.toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix still matches
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encoded response body, its optional gzip copy and their strong ETags.
+     * The controller's ETag (from AggregateVersions) is kept when it set one;
+     * otherwise the ETag is a hash of the body.
+     */
+    record CachedResponse(byte[] body, byte[] gzipBody, String contentType, String etag, String gzipEtag) {
+
+        static CachedResponse of(byte[] body, String contentType, String etag, int gzipMinBytes) {
+            String tag = etag != null && etag.startsWith("\"") && etag.endsWith("\"")
+                    ? etag.substring(1, etag.length() - 1)
+                    : sha256(body);
+            byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+            return new CachedResponse(body, gzipBody, contentType, "\"" + tag + "\"", "\"" + tag + "-gz\"");
+        }
+
+        int size() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
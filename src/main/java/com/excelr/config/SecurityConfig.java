@@ -52,8 +52,13 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/bookings/public/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/events/**", "/api/shows/**",
                                 "/api/venues/**", "/api/bookings/show/*/blocked-seats",
-                                "/api/bookings/event/*/zone-availability", "/api/ratings/**")
+                                "/api/bookings/show/*/seat-stream",
+                                "/api/bookings/event/*/zone-availability",
+                                "/api/bookings/event/*/zone-stream", "/api/ratings/**")
                         .permitAll() // Public GET endpoints
+                        // Full booking export covers every customer's bookings
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/bookings/export")
+                        .hasAnyRole("OWNER", "ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
@@ -1,5 +1,7 @@
 package com.excelr.controller;
 
+import com.excelr.service.BookingRollupService;
+import com.excelr.service.CacheMetrics;
 import com.excelr.service.impl.BookingServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,8 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final BookingServiceImpl bookingService;
+    private final BookingRollupService bookingRollupService;
+    private final CacheMetrics cacheMetrics;
 
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<Map<String, Object>> getMovieAnalytics(@PathVariable Long movieId,
@@ -26,4 +30,25 @@ public class AnalyticsController {
             @RequestParam(required = false) Long ownerId) {
         return ResponseEntity.ok(bookingService.getEventAnalytics(eventId, ownerId));
     }
+
+    /**
+     * Owner dashboard totals across all movies and events, read from the
+     * owner's rollup rows.
+     */
+    @GetMapping("/owner/{ownerId}")
+    public ResponseEntity<Map<String, Object>> getOwnerTotals(@PathVariable Long ownerId) {
+        BookingRollupService.Totals totals = bookingRollupService.getOwnerTotals(ownerId);
+        return ResponseEntity.ok(Map.of(
+                "totalRevenue", totals.revenue(),
+                "totalBookings", totals.bookings(),
+                "totalSeats", totals.seats()));
+    }
+
+    /**
+     * Size, hit/miss counts and evictions of the in-process caches.
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, CacheMetrics.Snapshot>> getCacheStats() {
+        return ResponseEntity.ok(cacheMetrics.snapshot());
+    }
 }
@@ -3,6 +3,7 @@ package com.excelr.controller;
 import com.excelr.entity.UserEntity;
 import com.excelr.repository.UserRepository;
 import com.excelr.security.JwtUtils;
+import com.excelr.service.CustomUserDetailsService;
 import com.excelr.service.impl.UserServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,7 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -29,7 +29,7 @@ public class AuthController {
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
     private final com.excelr.service.SmsService smsService;
 
     @PostMapping("/check-email")
@@ -99,6 +99,7 @@ public class AuthController {
             user.setProfileImageUrl(request.profileImageUrl());
 
         UserEntity updated = userRepository.save(user);
+        userDetailsService.evict(updated.getEmail());
         updated.setPassword(null);
         return ResponseEntity.ok(updated);
     }
@@ -5,27 +5,44 @@ import com.excelr.repository.BookingRepository;
 import com.excelr.repository.EventRepository;
 import com.excelr.repository.ShowRepository;
 import com.excelr.repository.UserRepository;
+import com.excelr.security.AuthUser;
+import com.excelr.service.AggregateVersions;
+import com.excelr.service.BookingHoldService;
+import com.excelr.service.SeatInventoryService;
+import com.excelr.service.SeatMapStreamService;
+import com.excelr.service.ZoneAvailabilityStreamService;
+import com.excelr.service.ZoneInventoryService;
 import com.excelr.service.impl.BookingServiceImpl;
+import com.excelr.service.impl.ShowServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import static com.excelr.service.AggregateVersions.key;
+
 /**
  * Booking controller for both movie and event bookings.
  *
  * Responsibilities:
  * - Create movie booking (seats + show)
  * - Create event booking (selected zones + date)
+ * - Hold seats / zone passes for a few minutes while the user pays
  * - List bookings for a user (for MyBookings screen)
  */
 @RestController
@@ -35,38 +52,63 @@ import java.util.Map;
 public class BookingController {
 
         private final BookingServiceImpl bookingService;
+        private final ShowServiceImpl showService;
         private final BookingRepository bookingRepository;
         private final UserRepository userRepository;
         private final ShowRepository showRepository;
         private final EventRepository eventRepository;
+        private final SeatInventoryService seatInventoryService;
+        private final SeatMapStreamService seatMapStreamService;
+        private final BookingHoldService bookingHoldService;
+        private final ZoneInventoryService zoneInventoryService;
+        private final ZoneAvailabilityStreamService zoneAvailabilityStreamService;
         private final ObjectMapper objectMapper;
+        private final AggregateVersions aggregateVersions;
+
+        private static final int MAX_PAGE_SIZE = 500;
 
-        private UserEntity requireAuthenticatedUser() {
-                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                if (auth == null || auth.getName() == null) {
+        // Caller from the JWT principal; no user query
+        private AuthUser requireAuthenticatedUser() {
+                AuthUser principal = AuthUser.current();
+                if (principal == null || principal.getId() == null) {
                         throw new IllegalArgumentException("Unauthorized");
                 }
-                return userRepository.findByEmail(auth.getName())
-                                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+                return principal;
         }
 
         @PostMapping("/movie")
-        public ResponseEntity<BookingEntity> createMovieBooking(@RequestBody MovieBookingRequest request) {
+        public ResponseEntity<?> createMovieBooking(@RequestBody MovieBookingRequest request) {
                 UserEntity user = userRepository.findById(request.userId())
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "User not found with id: " + request.userId()));
 
                 ShowEntity show = null;
                 if (request.showId() != null) {
-                        show = showRepository.findById(request.showId())
-                                        .orElseThrow(() -> new IllegalArgumentException(
-                                                        "Show not found with id: " + request.showId()));
+                        // Virtual shows get their row on the first booking
+                        show = showService.materialize(request.showId());
                 }
 
+                // Converting a hold: the seats were reserved when the hold was taken
+                BookingHoldService.Hold hold = null;
+                if (request.holdId() != null) {
+                        try {
+                                hold = bookingHoldService.consume(request.holdId(), user.getId());
+                        } catch (BookingHoldService.HoldUnavailableException e) {
+                                return holdGone(e);
+                        }
+                        if (hold.getType() != BookingType.MOVIE || show == null
+                                        || !show.getId().equals(hold.getShowId())) {
+                                bookingHoldService.abandon(hold);
+                                return ResponseEntity.badRequest().body(Map.of(
+                                                "error", "Hold does not belong to show " + request.showId()));
+                        }
+                }
+                List<String> seats = hold != null ? hold.getSeats() : request.seats();
+
                 String bookingDetailsJson;
                 try {
                         bookingDetailsJson = objectMapper.writeValueAsString(Map.of(
-                                        "seats", request.seats()));
+                                        "seats", seats));
                 } catch (Exception e) {
                         throw new RuntimeException("Failed to serialize movie booking seats", e);
                 }
@@ -85,12 +127,21 @@ public class BookingController {
                                 .bookedAt(LocalDateTime.now())
                                 .build();
 
-                BookingEntity saved = bookingService.createBooking(booking, user);
-                return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                try {
+                        BookingEntity saved = hold != null
+                                        ? bookingService.createBookingFromHold(booking, user, hold)
+                                        : bookingService.createBooking(booking, user);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                } catch (SeatInventoryService.SeatsUnavailableException e) {
+                        // Whole booking rejected; tell the client which seats to re-pick
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                                        "error", e.getMessage(),
+                                        "unavailableSeats", e.getSeats()));
+                }
         }
 
         @PostMapping("/event")
-        public ResponseEntity<BookingEntity> createEventBooking(@RequestBody EventBookingRequest request) {
+        public ResponseEntity<?> createEventBooking(@RequestBody EventBookingRequest request) {
                 UserEntity user = userRepository.findById(request.userId())
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "User not found with id: " + request.userId()));
@@ -98,10 +149,27 @@ public class BookingController {
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "Event not found with id: " + request.eventId()));
 
+                BookingHoldService.Hold hold = null;
+                if (request.holdId() != null) {
+                        try {
+                                hold = bookingHoldService.consume(request.holdId(), user.getId());
+                        } catch (BookingHoldService.HoldUnavailableException e) {
+                                return holdGone(e);
+                        }
+                        if (hold.getType() != BookingType.EVENT || !event.getId().equals(hold.getEventId())
+                                        || !java.util.Objects.equals(hold.getEventDateId(), request.eventDateId())) {
+                                bookingHoldService.abandon(hold);
+                                return ResponseEntity.badRequest().body(Map.of(
+                                                "error", "Hold does not belong to event " + request.eventId()));
+                        }
+                }
+                Map<String, Map<String, Integer>> selectedZones = hold != null ? hold.getZones()
+                                : request.selectedZones();
+
                 String bookingDetailsJson;
                 try {
                         bookingDetailsJson = objectMapper.writeValueAsString(Map.of(
-                                        "selectedZones", request.selectedZones()));
+                                        "selectedZones", selectedZones));
                 } catch (Exception e) {
                         throw new RuntimeException("Failed to serialize event booking zones", e);
                 }
@@ -120,15 +188,93 @@ public class BookingController {
                                 .bookedAt(LocalDateTime.now())
                                 .build();
 
-                BookingEntity saved = bookingService.createBooking(booking, user);
-                return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                try {
+                        BookingEntity saved = hold != null
+                                        ? bookingService.createBookingFromHold(booking, user, hold)
+                                        : bookingService.createBooking(booking, user);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                } catch (ZoneInventoryService.ZonesSoldOutException e) {
+                        return soldOut(e);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+                }
+        }
+
+        /**
+         * Put a time-boxed hold on seats while the user pays.
+         * Pass the returned holdId to POST /movie to confirm.
+         */
+        @PostMapping("/holds/movie")
+        public ResponseEntity<?> holdMovieSeats(@RequestBody MovieHoldRequest request) {
+                AuthUser user = requireAuthenticatedUser();
+                if (!user.getId().equals(request.userId())) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                Long showId = showService.materialize(request.showId()).getId();
+                try {
+                        BookingHoldService.Hold hold = bookingHoldService.holdSeats(user.getId(), showId,
+                                        request.seats());
+                        return ResponseEntity.status(HttpStatus.CREATED).body(HoldResponse.of(hold));
+                } catch (SeatInventoryService.SeatsUnavailableException e) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                                        "error", e.getMessage(),
+                                        "unavailableSeats", e.getSeats()));
+                }
+        }
+
+        /**
+         * Put a time-boxed hold on zone passes for an event date.
+         * Pass the returned holdId to POST /event to confirm.
+         */
+        @PostMapping("/holds/event")
+        public ResponseEntity<?> holdEventZones(@RequestBody EventHoldRequest request) {
+                AuthUser user = requireAuthenticatedUser();
+                if (!user.getId().equals(request.userId())) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                if (!eventRepository.existsById(request.eventId())) {
+                        throw new IllegalArgumentException("Event not found with id: " + request.eventId());
+                }
+                try {
+                        BookingHoldService.Hold hold = bookingHoldService.holdZones(user.getId(), request.eventId(),
+                                        request.eventDateId(), request.selectedZones());
+                        return ResponseEntity.status(HttpStatus.CREATED).body(HoldResponse.of(hold));
+                } catch (ZoneInventoryService.ZonesSoldOutException e) {
+                        return soldOut(e);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+                }
+        }
+
+        private ResponseEntity<Map<String, Object>> soldOut(ZoneInventoryService.ZonesSoldOutException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                                "error", "SOLD_OUT",
+                                "message", e.getMessage(),
+                                "soldOutZones", e.getZones(),
+                                "remaining", e.getRemaining()));
+        }
+
+        // The hold expired, was already used or is not the caller's: pick seats/zones again
+        private ResponseEntity<Map<String, Object>> holdGone(BookingHoldService.HoldUnavailableException e) {
+                return ResponseEntity.status(HttpStatus.GONE).body(Map.of(
+                                "error", "HOLD_EXPIRED",
+                                "message", e.getMessage()));
+        }
+
+        @DeleteMapping("/holds/{holdId}")
+        public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+                AuthUser user = requireAuthenticatedUser();
+                if (!bookingHoldService.release(holdId, user.getId())) {
+                        return ResponseEntity.notFound().build();
+                }
+                return ResponseEntity.noContent().build();
         }
 
         @GetMapping("/{id}")
         public ResponseEntity<BookingEntity> getBookingById(@PathVariable Long id) {
                 BookingEntity booking = bookingRepository.findById(id)
                                 .orElseThrow(() -> new IllegalArgumentException("Booking not found with id: " + id));
-                UserEntity authUser = requireAuthenticatedUser();
+                AuthUser authUser = requireAuthenticatedUser();
                 if (booking.getUser() == null || authUser.getId() == null
                                 || !authUser.getId().equals(booking.getUser().getId())) {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -139,8 +285,9 @@ public class BookingController {
         @PostMapping("/{id}/cancel")
         public ResponseEntity<?> cancelBooking(@PathVariable Long id) {
                 try {
-                        UserEntity authUser = requireAuthenticatedUser();
-                        BookingEntity cancelled = bookingService.cancelBooking(id, authUser);
+                        AuthUser authUser = requireAuthenticatedUser();
+                        BookingEntity cancelled = bookingService.cancelBooking(id,
+                                        userRepository.getReferenceById(authUser.getId()));
                         return ResponseEntity.ok(cancelled);
                 } catch (IllegalArgumentException e) {
                         return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -179,13 +326,38 @@ public class BookingController {
 
         @GetMapping("/user/{userId}")
         public ResponseEntity<List<BookingEntity>> getBookingsForUser(@PathVariable Long userId) {
-                UserEntity authUser = requireAuthenticatedUser();
+                AuthUser authUser = requireAuthenticatedUser();
                 if (authUser.getId() == null || !authUser.getId().equals(userId)) {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
                 }
-                UserEntity user = userRepository.findById(userId)
-                                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-                return ResponseEntity.ok(bookingService.getBookingsForUser(user));
+                return ResponseEntity.ok(bookingService.getBookingsForUser(userRepository.getReferenceById(userId)));
+        }
+
+        /**
+         * A user's bookings one page at a time, as slim rows (no event config,
+         * no nested entities).
+         * view=upcoming lists today onwards soonest first; view=past lists
+         * older bookings most recent first.
+         *
+         * Example: GET /api/bookings/user/7/page?view=upcoming&page=0&size=20
+         */
+        @GetMapping("/user/{userId}/page")
+        public ResponseEntity<?> getBookingsPageForUser(@PathVariable Long userId,
+                        @RequestParam(defaultValue = "upcoming") String view,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size) {
+                AuthUser authUser = requireAuthenticatedUser();
+                if (authUser.getId() == null || !authUser.getId().equals(userId)) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                if (!"upcoming".equalsIgnoreCase(view) && !"past".equalsIgnoreCase(view)) {
+                        return ResponseEntity.badRequest().body(Map.of("error", "view must be upcoming or past"));
+                }
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                Slice<BookingRepository.MyBookingRow> slice = bookingService.getBookingsForUser(userId,
+                                "upcoming".equalsIgnoreCase(view), Math.max(0, page), pageSize);
+                return ResponseEntity.ok(new UserBookingPage(slice.getContent(), slice.getNumber(), pageSize,
+                                slice.hasNext()));
         }
 
         @GetMapping("/movie/{movieId}")
@@ -208,155 +380,147 @@ public class BookingController {
                 return ResponseEntity.ok(bookingRepository.findByEventId(eventId));
         }
 
+        /**
+         * All bookings, one keyset page at a time (ordered by id).
+         * Pass the returned nextCursor as ?after= to get the next page; it is
+         * null on the last page.
+         */
         @GetMapping
-        public ResponseEntity<List<BookingSummary>> getAllBookings() {
-                List<BookingEntity> all = bookingRepository.findAll();
-
-                List<BookingSummary> result = all.stream()
-                                .map(b -> new BookingSummary(
-                                                b.getId(),
-                                                b.getBookingCode(),
-                                                b.getUser() != null ? b.getUser().getName() : null,
-                                                b.getType(),
-                                                b.getShow() != null
-                                                                ? new ShowInfo(
-                                                                                b.getShow().getId(),
-                                                                                b.getShow().getTmdbMovieId(),
-                                                                                b.getShow().getShowDate(),
-                                                                                b.getShow().getShowTime(),
-                                                                                b.getShow().getVenue() != null
-                                                                                                ? new VenueInfo(
-                                                                                                                b.getShow().getVenue()
-                                                                                                                                .getId(),
-                                                                                                                b.getShow().getVenue()
-                                                                                                                                .getName())
-                                                                                                : null)
-                                                                : null,
-                                                b.getEvent() != null
-                                                                ? new EventInfo(
-                                                                                b.getEvent().getId(),
-                                                                                b.getEvent().getTitle(),
-                                                                                b.getEvent().getEventConfig(),
-                                                                                b.getEvent().getVenue() != null
-                                                                                                ? new VenueInfo(
-                                                                                                                b.getEvent()
-                                                                                                                                .getVenue()
-                                                                                                                                .getId(),
-                                                                                                                b.getEvent()
-                                                                                                                                .getVenue()
-                                                                                                                                .getName())
-                                                                                                : null,
-                                                                                b.getEvent().getAddress(),
-                                                                                b.getEvent().getPosterUrl())
-                                                                : null,
-                                                b.getBookingDetails(),
-                                                b.getTotalAmount(),
-                                                b.getStatus(),
-                                                b.getBookedAt()))
+        public ResponseEntity<BookingPage> getAllBookings(
+                        @RequestParam(defaultValue = "0") Long after,
+                        @RequestParam(defaultValue = "100") int limit) {
+                int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+                List<BookingSummary> items = bookingRepository
+                                .findBookingListPage(after, PageRequest.of(0, pageSize)).stream()
+                                .map(this::toSummary)
                                 .toList();
-
-                return ResponseEntity.ok(result);
+                Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).id() : null;
+                return ResponseEntity.ok(new BookingPage(items, nextCursor));
         }
 
         /**
-         * Get blocked/booked seats for a specific show
+         * Export all bookings as NDJSON (one BookingSummary per line), streamed
+         * from the DB row by row so memory stays flat whatever the booking count.
+         * Owners and admins only (see SecurityConfig).
          */
-        @GetMapping("/show/{showId}/blocked-seats")
-        public ResponseEntity<List<String>> getBlockedSeatsForShow(@PathVariable Long showId) {
-                List<BookingEntity> bookings = bookingRepository.findByShowIdAndStatus(showId, Status.CONFIRMED);
-
-                List<String> blockedSeats = bookings.stream()
-                                .flatMap(booking -> {
+        @GetMapping(value = "/export", produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> exportAllBookings() {
+                StreamingResponseBody body = out -> {
+                        try {
+                                bookingService.forEachBookingListRow(row -> {
                                         try {
-                                                @SuppressWarnings("unchecked")
-                                                Map<String, Object> details = objectMapper.readValue(
-                                                                booking.getBookingDetails(),
-                                                                Map.class);
-                                                @SuppressWarnings("unchecked")
-                                                List<String> seats = (List<String>) details.get("seats");
-                                                return seats != null ? seats.stream() : java.util.stream.Stream.empty();
-                                        } catch (Exception e) {
-                                                return java.util.stream.Stream.empty();
+                                                out.write(objectMapper.writeValueAsBytes(toSummary(row)));
+                                                out.write('\n');
+                                        } catch (IOException e) {
+                                                throw new UncheckedIOException(e);
                                         }
-                                })
-                                .toList();
+                                });
+                        } catch (UncheckedIOException e) {
+                                throw e.getCause(); // client went away
+                        }
+                        out.flush();
+                };
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                                .body(body);
+        }
+
+        private BookingSummary toSummary(BookingRepository.BookingListRow row) {
+                return new BookingSummary(
+                                row.getId(),
+                                row.getBookingCode(),
+                                row.getUserName(),
+                                row.getType(),
+                                row.getShowId() != null
+                                                ? new ShowInfo(
+                                                                row.getShowId(),
+                                                                row.getTmdbMovieId(),
+                                                                row.getShowDate(),
+                                                                row.getShowTime(),
+                                                                row.getShowVenueId() != null
+                                                                                ? new VenueInfo(row.getShowVenueId(),
+                                                                                                row.getShowVenueName())
+                                                                                : null)
+                                                : null,
+                                row.getEventId() != null
+                                                ? new EventInfo(
+                                                                row.getEventId(),
+                                                                row.getEventTitle(),
+                                                                row.getEventConfig(),
+                                                                row.getEventVenueId() != null
+                                                                                ? new VenueInfo(row.getEventVenueId(),
+                                                                                                row.getEventVenueName())
+                                                                                : null,
+                                                                row.getEventAddress(),
+                                                                row.getEventPosterUrl())
+                                                : null,
+                                row.getBookingDetails(),
+                                row.getTotalAmount(),
+                                row.getStatus(),
+                                row.getBookedAt());
+        }
 
-                return ResponseEntity.ok(blockedSeats);
+        /**
+         * Get blocked/booked seats for a specific show.
+         * Served from the in-memory seat bitmap (no DB read, no JSON parsing).
+         */
+        @GetMapping("/show/{showId}/blocked-seats")
+        public ResponseEntity<List<String>> getBlockedSeatsForShow(@PathVariable Long showId,
+                        WebRequest webRequest) {
+                Long resolvedId = showService.resolveId(showId);
+                String etag = aggregateVersions.etag(key(AggregateVersions.SEATS, resolvedId));
+                if (webRequest.checkNotModified(etag)) {
+                        return null; // 304, seat state unchanged
+                }
+                if (ShowServiceImpl.isVirtualId(resolvedId)) {
+                        return ResponseEntity.ok().eTag(etag).body(List.of()); // nobody has booked this virtual show yet
+                }
+                return ResponseEntity.ok().eTag(etag).body(seatInventoryService.getBlockedSeats(resolvedId));
         }
 
         /**
-         * Get zone availability for a specific event and date
+         * Live seat map for a show (server-sent events).
+         * Sends a "snapshot" of blocked seats, then "seats" events with
+         * {taken, released} deltas as bookings, holds and cancellations happen.
+         */
+        @GetMapping(value = "/show/{showId}/seat-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamSeatsForShow(@PathVariable Long showId) {
+                return seatMapStreamService.subscribe(showService.resolveId(showId));
+        }
+
+        /**
+         * Get zone availability for a specific event and date.
+         * Served from the in-memory zone counters; passes sitting in an
+         * unexpired hold count as unavailable.
          */
         @GetMapping("/event/{eventId}/zone-availability")
         public ResponseEntity<Map<String, ZoneAvailability>> getZoneAvailabilityForEvent(
                         @PathVariable Long eventId,
                         @RequestParam String eventDateId) {
-                EventEntity event = eventRepository.findById(eventId)
-                                .orElseThrow(() -> new IllegalArgumentException("Event not found with id: " + eventId));
-
-                // Get all confirmed bookings for this event and date
-                List<BookingEntity> bookings = bookingRepository.findByEventIdAndEventDateIdAndStatus(
-                                eventId, eventDateId, Status.CONFIRMED);
-
-                // Parse event config to get zone capacities
-                Map<String, ZoneAvailability> zoneAvailability = new java.util.HashMap<>();
-                try {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> eventConfigMap = objectMapper.readValue(event.getEventConfig(), Map.class);
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> zones = (List<Map<String, Object>>) eventConfigMap.get("zones");
-
-                        for (Map<String, Object> zoneData : zones) {
-                                String zoneName = (String) zoneData.get("name");
-                                Integer capacity = (Integer) zoneData.get("capacity");
-
-                                // Count booked passes for this zone
-                                int bookedPasses = bookings.stream()
-                                                .mapToInt(booking -> {
-                                                        try {
-                                                                @SuppressWarnings("unchecked")
-                                                                Map<String, Object> details = objectMapper.readValue(
-                                                                                booking.getBookingDetails(),
-                                                                                Map.class);
-                                                                @SuppressWarnings("unchecked")
-                                                                Map<String, Object> selectedZones = (Map<String, Object>) details
-                                                                                .get("selectedZones");
-                                                                if (selectedZones != null && selectedZones
-                                                                                .containsKey(zoneName)) {
-                                                                        @SuppressWarnings("unchecked")
-                                                                        Map<String, Object> zoneInfo = (Map<String, Object>) selectedZones
-                                                                                        .get(zoneName);
-                                                                        Object adultObj = zoneInfo.get("adult");
-                                                                        Object childObj = zoneInfo.get("child");
-                                                                        int adult = adultObj instanceof Integer
-                                                                                        ? (Integer) adultObj
-                                                                                        : 0;
-                                                                        int child = childObj instanceof Integer
-                                                                                        ? (Integer) childObj
-                                                                                        : 0;
-                                                                        return adult + child;
-                                                                }
-                                                                return 0;
-                                                        } catch (Exception e) {
-                                                                return 0;
-                                                        }
-                                                })
-                                                .sum();
-
-                                int available = capacity - bookedPasses;
-                                zoneAvailability.put(zoneName, new ZoneAvailability(
-                                                capacity,
-                                                bookedPasses,
-                                                available,
-                                                available > 0));
-                        }
-                } catch (Exception e) {
-                        throw new RuntimeException("Failed to parse event config", e);
-                }
-
+                Map<String, ZoneAvailability> zoneAvailability = new java.util.LinkedHashMap<>();
+                zoneInventoryService.getAvailability(eventId, eventDateId).forEach((zoneName, count) -> {
+                        int available = count.available();
+                        zoneAvailability.put(zoneName, new ZoneAvailability(
+                                        count.capacity(),
+                                        count.booked(),
+                                        available,
+                                        available > 0));
+                });
                 return ResponseEntity.ok(zoneAvailability);
         }
 
+        /**
+         * Live zone availability for an event date (server-sent events).
+         * Sends a "snapshot" of every zone, then "zones" events with only the
+         * zones that changed, at most a few per second.
+         */
+        @GetMapping(value = "/event/{eventId}/zone-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamZoneAvailabilityForEvent(
+                        @PathVariable Long eventId,
+                        @RequestParam String eventDateId) {
+                return zoneAvailabilityStreamService.subscribe(eventId, eventDateId);
+        }
+
         // ===== Request DTOs =====
 
         public record MovieBookingRequest(
@@ -364,7 +528,8 @@ public class BookingController {
                         Long showId,
                         List<String> seats,
                         BigDecimal totalAmount,
-                        String paymentMethod // "card", "upi", "netbanking", "wallet"
+                        String paymentMethod, // "card", "upi", "netbanking", "wallet"
+                        String holdId // optional: confirm a hold from POST /holds/movie
         ) {
         }
 
@@ -374,10 +539,24 @@ public class BookingController {
                         String eventDateId,
                         Map<String, Map<String, Integer>> selectedZones,
                         BigDecimal totalAmount,
-                        String paymentMethod // "card", "upi", "netbanking", "wallet"
+                        String paymentMethod, // "card", "upi", "netbanking", "wallet"
+                        String holdId // optional: confirm a hold from POST /holds/event
         ) {
         }
 
+        public record MovieHoldRequest(
+                        Long userId,
+                        Long showId,
+                        List<String> seats) {
+        }
+
+        public record EventHoldRequest(
+                        Long userId,
+                        Long eventId,
+                        String eventDateId,
+                        Map<String, Map<String, Integer>> selectedZones) {
+        }
+
         // ===== Response DTOs =====
 
         public record ShowInfo(
@@ -415,6 +594,18 @@ public class BookingController {
                         LocalDateTime bookedAt) {
         }
 
+        public record BookingPage(
+                        List<BookingSummary> items,
+                        Long nextCursor) {
+        }
+
+        public record UserBookingPage(
+                        List<BookingRepository.MyBookingRow> items,
+                        int page,
+                        int size,
+                        boolean hasNext) {
+        }
+
         public record PublicBookingResponse(
                         Long id,
                         String bookingCode,
@@ -429,6 +620,22 @@ public class BookingController {
                         LocalDateTime bookedAt) {
         }
 
+        public record HoldResponse(
+                        String holdId,
+                        BookingType type,
+                        Long showId,
+                        List<String> seats,
+                        Long eventId,
+                        String eventDateId,
+                        Map<String, Map<String, Integer>> selectedZones,
+                        LocalDateTime expiresAt) {
+
+                static HoldResponse of(BookingHoldService.Hold hold) {
+                        return new HoldResponse(hold.getId(), hold.getType(), hold.getShowId(), hold.getSeats(),
+                                        hold.getEventId(), hold.getEventDateId(), hold.getZones(), hold.getExpiresAt());
+                }
+        }
+
         public record ZoneAvailability(
                         int capacity,
                         int booked,
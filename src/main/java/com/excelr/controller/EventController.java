@@ -1,23 +1,27 @@
 package com.excelr.controller;
 
-import com.excelr.entity.BookingEntity;
 import com.excelr.entity.EventEntity;
+import com.excelr.entity.RollupScope;
 import com.excelr.entity.Status;
 import com.excelr.entity.UserEntity;
 import com.excelr.entity.VenueEntity;
-import com.excelr.repository.BookingRepository;
-import com.excelr.repository.EventRepository;
 import com.excelr.repository.UserRepository;
 import com.excelr.repository.VenueRepository;
+import com.excelr.service.AggregateVersions;
+import com.excelr.service.BookingRollupService;
 import com.excelr.service.impl.EventServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.excelr.service.AggregateVersions.key;
+
 /**
  * Event controller for creating and listing events (concerts, shows, etc.)
  *
@@ -31,10 +35,10 @@ import java.util.stream.Collectors;
 public class EventController {
 
     private final EventServiceImpl eventService;
-    private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final VenueRepository venueRepository;
-    private final BookingRepository bookingRepository;
+    private final BookingRollupService bookingRollupService;
+    private final AggregateVersions aggregateVersions;
 
     @PostMapping
     public ResponseEntity<EventEntity> createEvent(@RequestBody CreateEventRequest request) {
@@ -59,17 +63,28 @@ public class EventController {
     }
 
     @GetMapping
-    public ResponseEntity<List<EventEntity>> getAllEvents() {
+    public ResponseEntity<List<EventEntity>> getAllEvents(WebRequest webRequest) {
+        // Events embed their venue, so venue edits change the ETag too
+        String etag = aggregateVersions.etag(key(AggregateVersions.EVENT, AggregateVersions.ALL),
+                key(AggregateVersions.VENUE, AggregateVersions.ALL));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304, nothing loaded
+        }
         // Return all events (any status) for listing on user side
-        // Repository has @EntityGraph on findAll() to eagerly fetch venue
-        List<EventEntity> events = eventRepository.findAll();
-        return ResponseEntity.ok(events);
+        // Served from the catalog cache; the repository's findAll() eagerly fetches venue
+        List<EventEntity> events = eventService.getAllEvents();
+        return ResponseEntity.ok().eTag(etag).body(events);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EventEntity> getEvent(@PathVariable Long id) {
-        return eventRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<EventEntity> getEvent(@PathVariable Long id, WebRequest webRequest) {
+        String etag = aggregateVersions.etag(key(AggregateVersions.EVENT, id),
+                key(AggregateVersions.VENUE, AggregateVersions.ALL));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304, nothing loaded
+        }
+        return eventService.getEvent(id)
+                .map(event -> ResponseEntity.ok().eTag(etag).body(event))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -78,24 +93,23 @@ public class EventController {
         UserEntity owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId));
         List<EventEntity> events = eventService.getEventsByOwner(owner);
-        
-        // Calculate revenue for each event
+
+        // Revenue and booking count for all events from their rollup rows in one query
+        Map<String, BookingRollupService.Totals> revenueByEvent = bookingRollupService.getTotals(RollupScope.EVENT,
+                events.stream().map(event -> String.valueOf(event.getId())).toList());
+
         List<EventWithRevenue> eventsWithRevenue = events.stream()
                 .map(event -> {
                     // Manually initialize venue to avoid lazy loading issues
                     if (event.getVenue() != null) {
                         event.getVenue().getName(); // Touch venue to initialize it
                     }
-                    
-                    // Calculate total revenue from confirmed bookings for this event
-                    List<BookingEntity> confirmedBookings = bookingRepository.findByEventAndStatus(event, Status.CONFIRMED);
-                    double totalRevenue = confirmedBookings.stream()
-                            .mapToDouble(b -> b.getTotalAmount() != null ? b.getTotalAmount().doubleValue() : 0.0)
-                            .sum();
-                    
-                    // Count total bookings
-                    long totalBookings = confirmedBookings.size();
-                    
+
+                    BookingRollupService.Totals totals = revenueByEvent.getOrDefault(String.valueOf(event.getId()),
+                            BookingRollupService.Totals.EMPTY);
+                    double totalRevenue = totals.revenue().doubleValue();
+                    long totalBookings = totals.bookings();
+
                     return new EventWithRevenue(event, totalRevenue, totalBookings);
                 })
                 .collect(Collectors.toList());
@@ -5,6 +5,7 @@ import com.excelr.entity.UserEntity;
 import com.excelr.repository.EventRepository;
 import com.excelr.repository.UserRepository;
 import com.excelr.service.FileStorageService;
+import com.excelr.service.impl.EventServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
@@ -36,6 +37,9 @@ public class ImageUploadController {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private EventServiceImpl eventService;
+
     private ResponseEntity<?> validateImageFile(MultipartFile file) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body("Please select a file to upload");
@@ -91,7 +95,7 @@ public class ImageUploadController {
 
             String fileUrl = fileStorageService.storeFile(file, "events");
             event.setPosterUrl(fileUrl);
-            eventRepository.save(event);
+            eventService.updateEvent(event);
 
             return ResponseEntity.ok(createSuccessResponse("Event image uploaded successfully", fileUrl));
         } catch (Exception e) {
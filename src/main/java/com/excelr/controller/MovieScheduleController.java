@@ -1,13 +1,15 @@
 package com.excelr.controller;
 
 import com.excelr.entity.MovieScheduleEntity;
-import com.excelr.entity.ShowEntity;
 import com.excelr.entity.Status;
 import com.excelr.entity.VenueEntity;
 import com.excelr.repository.MovieScheduleRepository;
 import com.excelr.repository.VenueRepository;
+import com.excelr.service.ShowGenerationService;
 import com.excelr.service.impl.MovieScheduleServiceImpl;
+import com.excelr.service.impl.ShowServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,13 +17,15 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Movie scheduling controller used by the Owner Smart Scheduler.
  *
  * Main responsibilities:
  * - Create a schedule for a movie in a venue (startDate/endDate/showtimes/prices)
- * - Generate individual show instances for that schedule
+ * - Generate individual show instances for that schedule (in the background,
+ *   see ShowGenerationService) and report the generation progress
  */
 @RestController
 @RequestMapping("/api/schedules")
@@ -32,6 +36,9 @@ public class MovieScheduleController {
     private final MovieScheduleServiceImpl movieScheduleService;
     private final MovieScheduleRepository movieScheduleRepository;
     private final VenueRepository venueRepository;
+    private final ShowGenerationService showGenerationService;
+    private final ShowServiceImpl showService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping
     public ResponseEntity<ScheduleResponse> createSchedule(@RequestBody CreateScheduleRequest request) {
@@ -49,16 +56,40 @@ public class MovieScheduleController {
                 .vipPrice(request.vipPrice() != null ? request.vipPrice() : BigDecimal.ZERO)
                 .status(Status.ACTIVE)
                 .build();
+        // Virtual shows are computed from the schedule, so there is nothing to generate
+        schedule.setGeneratedUntil(showService.isVirtualShowsEnabled()
+                ? schedule.getEndDate()
+                : schedule.getStartDate().minusDays(1));
 
         MovieScheduleEntity savedSchedule = movieScheduleService.createSchedule(schedule);
+        int showCount = movieScheduleService.countShows(savedSchedule, savedSchedule.getStartDate(),
+                savedSchedule.getEndDate());
 
-        // Generate the individual show instances for the selected window
-        List<ShowEntity> shows = movieScheduleService.generateShowsForSchedule(savedSchedule);
+        if (showService.isVirtualShowsEnabled()) {
+            eventPublisher.publishEvent(new ShowServiceImpl.ShowsChanged(venue.getId()));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ScheduleResponse(savedSchedule.getId(), showCount, null, 0));
+        }
+
+        // Generate the shows of the first few weeks in the background; later dates follow lazily
+        ShowGenerationService.Job job = showGenerationService.start(savedSchedule);
 
-        ScheduleResponse response = new ScheduleResponse(savedSchedule.getId(), shows.size());
+        ScheduleResponse response = new ScheduleResponse(savedSchedule.getId(), showCount, job.getId(),
+                job.getTotalShows());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Progress of a background show generation job.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getGenerationJob(@PathVariable String jobId) {
+        return showGenerationService.getJob(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(GenerationJobResponse.of(job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Generation job not found: " + jobId)));
+    }
+
     @GetMapping("/venue/{venueId}")
     public ResponseEntity<List<MovieScheduleEntity>> getSchedulesForVenue(@PathVariable Long venueId,
                                                                           @RequestParam(required = false) String fromDate) {
@@ -100,7 +131,24 @@ public class MovieScheduleController {
 
     public record ScheduleResponse(
             Long scheduleId,
-            int generatedShowCount
+            int generatedShowCount,  // shows of the whole schedule (startDate..endDate x showtimes)
+            String jobId,            // background job writing the first window; null with virtual shows
+            int windowShowCount      // shows that job writes up front; later dates follow lazily
     ) {}
+
+    public record GenerationJobResponse(
+            String jobId,
+            Long scheduleId,
+            ShowGenerationService.JobStatus status,
+            int totalShows,
+            int generatedShows,
+            LocalDate generateUntil,
+            String error
+    ) {
+        static GenerationJobResponse of(ShowGenerationService.Job job) {
+            return new GenerationJobResponse(job.getId(), job.getScheduleId(), job.getStatus(),
+                    job.getTotalShows(), job.getGeneratedShows(), job.getGenerateUntil(), job.getError());
+        }
+    }
 }
 
@@ -4,17 +4,25 @@ import com.excelr.entity.RatingEntity;
 import com.excelr.entity.UserEntity;
 import com.excelr.repository.RatingRepository;
 import com.excelr.repository.UserRepository;
+import com.excelr.security.AuthUser;
+import com.excelr.service.AggregateVersions;
+import com.excelr.service.RatingAggregateService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.excelr.service.AggregateVersions.key;
+
 /**
  * Rating controller for movies and events.
  * Allows users to rate items with 1-5 stars.
@@ -24,15 +32,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RatingController {
 
+    private static final int MAX_SUMMARY_BATCH = 200;
+
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AggregateVersions aggregateVersions;
+    private final RatingAggregateService ratingAggregateService;
 
+    // Caller from the JWT principal; a lazy reference, so no user query
     private UserEntity getAuthenticatedUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+        AuthUser principal = AuthUser.current();
+        if (principal == null || principal.getId() == null) {
             return null;
         }
-        return userRepository.findByEmail(auth.getName()).orElse(null);
+        return userRepository.getReferenceById(principal.getId());
     }
 
     /**
@@ -50,28 +64,9 @@ public class RatingController {
             return ResponseEntity.badRequest().body("Rating must be between 1 and 5");
         }
 
-        // Check if user already rated this item
-        Optional<RatingEntity> existingRating = ratingRepository.findByUserIdAndItemIdAndItemType(
-                user.getId(), request.itemId(), request.itemType());
-
-        RatingEntity rating;
-        if (existingRating.isPresent()) {
-            // Update existing rating
-            rating = existingRating.get();
-            rating.setRating(request.rating());
-            rating.setReview(request.review());
-        } else {
-            // Create new rating
-            rating = RatingEntity.builder()
-                    .user(user)
-                    .itemId(request.itemId())
-                    .itemType(request.itemType())
-                    .rating(request.rating())
-                    .review(request.review())
-                    .build();
-        }
-
-        RatingEntity saved = ratingRepository.save(rating);
+        RatingEntity saved = ratingAggregateService.rate(
+                user, request.itemType(), request.itemId(), request.rating(), request.review());
+        eventPublisher.publishEvent(new RatingChanged(saved.getItemType(), saved.getItemId()));
         return ResponseEntity.ok(new RatingResponse(
                 saved.getId(),
                 saved.getRating(),
@@ -85,14 +80,41 @@ public class RatingController {
     @GetMapping("/{itemType}/{itemId}")
     public ResponseEntity<RatingSummary> getRatingSummary(
             @PathVariable String itemType,
-            @PathVariable String itemId) {
+            @PathVariable String itemId,
+            WebRequest webRequest) {
+        String etag = aggregateVersions.etag(key(AggregateVersions.RATINGS, itemType + ":" + itemId));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304, nothing loaded
+        }
 
-        Double avgRating = ratingRepository.findAverageRatingByItemIdAndItemType(itemId, itemType);
-        Long count = ratingRepository.countByItemIdAndItemType(itemId, itemType);
+        return ResponseEntity.ok().eTag(etag).body(
+                RatingSummary.of(ratingAggregateService.getSummary(itemType, itemId)));
+    }
 
-        return ResponseEntity.ok(new RatingSummary(
-                avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0,
-                count != null ? count : 0L));
+    /**
+     * Rating summaries of many items in one call, e.g. for a catalog grid
+     * (public endpoint): ?items=movie:12,event:7
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getRatingSummaries(@RequestParam List<String> items) {
+        if (items.size() > MAX_SUMMARY_BATCH) {
+            return ResponseEntity.badRequest().body("At most " + MAX_SUMMARY_BATCH + " items per request");
+        }
+        Set<RatingAggregateService.ItemKey> keys = new LinkedHashSet<>();
+        for (String item : items) {
+            int separator = item.indexOf(':');
+            if (separator <= 0 || separator == item.length() - 1) {
+                return ResponseEntity.badRequest().body("Items must be given as itemType:itemId");
+            }
+            keys.add(new RatingAggregateService.ItemKey(item.substring(0, separator), item.substring(separator + 1)));
+        }
+
+        Map<RatingAggregateService.ItemKey, RatingAggregateService.Summary> summaries =
+                ratingAggregateService.getSummaries(keys);
+        return ResponseEntity.ok(keys.stream()
+                .map(key -> new ItemRatingSummary(key.itemType(), key.itemId(),
+                        RatingSummary.of(summaries.get(key))))
+                .toList());
     }
 
     /**
@@ -139,7 +161,10 @@ public class RatingController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot delete another user's rating");
         }
 
-        ratingRepository.delete(rating.get());
+        if (!ratingAggregateService.delete(rating.get())) {
+            return ResponseEntity.notFound().build();
+        }
+        eventPublisher.publishEvent(new RatingChanged(rating.get().getItemType(), rating.get().getItemId()));
         return ResponseEntity.ok().build();
     }
 
@@ -186,7 +211,18 @@ public class RatingController {
 
     public record RatingSummary(
             Double averageRating,
-            Long totalRatings
+            Long totalRatings,
+            Map<Integer, Long> starCounts // 1-5 -> number of ratings
+    ) {
+        static RatingSummary of(RatingAggregateService.Summary summary) {
+            return new RatingSummary(summary.averageRating(), summary.count(), summary.stars());
+        }
+    }
+
+    public record ItemRatingSummary(
+            String itemType,
+            String itemId,
+            RatingSummary summary
     ) {}
 
     public record ReviewDto(
@@ -196,4 +232,9 @@ public class RatingController {
             String review,
             java.time.LocalDateTime createdAt
     ) {}
+
+    /**
+     * A rating of an item was added, changed or removed.
+     */
+    public record RatingChanged(String itemType, String itemId) {}
 }
@@ -4,21 +4,32 @@ import com.excelr.entity.BookingEntity;
 import com.excelr.entity.ShowEntity;
 import com.excelr.entity.VenueEntity;
 import com.excelr.repository.BookingRepository;
+import com.excelr.repository.BookingRollupRepository;
 import com.excelr.repository.ShowRepository;
 import com.excelr.repository.VenueRepository;
 import com.excelr.repository.MovieScheduleRepository;
 import com.excelr.entity.MovieScheduleEntity;
+import com.excelr.service.AggregateVersions;
+import com.excelr.service.BookingRollupService;
+import com.excelr.service.SeatInventoryService;
+import com.excelr.service.ShowGenerationService;
+import com.excelr.service.impl.MovieScheduleServiceImpl;
 import com.excelr.service.impl.ShowServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.excelr.service.AggregateVersions.key;
+
 /**
  * Controller for reading show information used in user booking flows.
  *
@@ -35,12 +46,25 @@ public class ShowController {
         private final ShowRepository showRepository;
         private final VenueRepository venueRepository;
         private final BookingRepository bookingRepository;
+        private final BookingRollupService bookingRollupService;
         private final MovieScheduleRepository movieScheduleRepository;
+        private final MovieScheduleServiceImpl movieScheduleService;
+        private final SeatInventoryService seatInventoryService;
+        private final ShowGenerationService showGenerationService;
+        private final ApplicationEventPublisher eventPublisher;
+        private final AggregateVersions aggregateVersions;
 
         @GetMapping("/venue/{venueId}")
         public ResponseEntity<List<ShowSummary>> getShowsForVenueAndDate(@PathVariable Long venueId,
                         @RequestParam String date,
-                        @RequestParam(required = false) Long movieId) {
+                        @RequestParam(required = false) Long movieId,
+                        WebRequest webRequest) {
+                // Summaries carry the venue name, so venue edits change the ETag too
+                String etag = aggregateVersions.etag(key(AggregateVersions.SHOWS, venueId),
+                                key(AggregateVersions.VENUE, venueId));
+                if (webRequest.checkNotModified(etag)) {
+                        return null; // 304, nothing loaded
+                }
                 VenueEntity venue = venueRepository.findById(venueId)
                                 .orElseThrow(() -> new IllegalArgumentException("Venue not found with id: " + venueId));
 
@@ -67,72 +91,75 @@ public class ShowController {
                                                 s.getVipPrice()))
                                 .collect(Collectors.toList());
 
-                return ResponseEntity.ok(result);
+                return ResponseEntity.ok().eTag(etag).body(result);
         }
 
         /**
          * Summary of all movies that currently have shows, used by the owner dashboard.
          *
-         * Aggregates ShowEntity rows by tmdbMovieId and returns:
+         * Aggregates the movie schedules by tmdbMovieId and returns:
          * - tmdbMovieId
-         * - total number of shows
+         * - total number of shows over the schedules' full date ranges
          * - first and last show dates
-         * - total bookings across all those shows
+         * - confirmed bookings and revenue across all those shows
+         *
+         * Show counts and dates come from the schedules rather than the shows
+         * table, which only holds the generated window. Bookings come from the
+         * per-show booking rollups summed per movie for owners.
          */
         @GetMapping("/summary")
         public ResponseEntity<List<MovieShowSummary>> getMovieShowSummary(
                         @RequestParam(required = false) Long ownerId) {
-                List<ShowEntity> shows;
-                if (ownerId != null) {
-                        shows = showRepository.findByVenue_OwnerId(ownerId);
-                } else {
-                        // Return all shows for public view
-                        shows = showRepository.findAll();
-                }
+                Map<Long, List<MovieScheduleRepository.ScheduleSummary>> grouped = movieScheduleRepository
+                                .findForSummary(ownerId).stream()
+                                .collect(Collectors.groupingBy(MovieScheduleRepository.ScheduleSummary::getTmdbMovieId,
+                                                LinkedHashMap::new, Collectors.toList()));
 
-                Map<Long, List<ShowEntity>> grouped = shows.stream()
-                                .collect(Collectors.groupingBy(ShowEntity::getTmdbMovieId));
+                // Only expose metrics if a specific owner is requesting their dashboard
+                // If this is public view (ownerId == null), skip the booking query and mask these values
+                Map<Long, BookingRollupRepository.MovieTotals> bookingStats = ownerId == null ? Map.of()
+                                : bookingRollupService.getMovieTotalsForOwner(ownerId);
 
                 List<MovieShowSummary> result = grouped.entrySet().stream()
                                 .map(entry -> {
                                         Long tmdbMovieId = entry.getKey();
-                                        List<ShowEntity> group = entry.getValue();
+                                        List<MovieScheduleRepository.ScheduleSummary> schedules = entry.getValue();
 
-                                        LocalDate firstDate = group.stream()
-                                                        .map(ShowEntity::getShowDate)
+                                        long showCount = schedules.stream()
+                                                        .mapToLong(schedule -> movieScheduleService.countShows(
+                                                                        schedule.getShowtimes(), schedule.getStartDate(),
+                                                                        schedule.getEndDate()))
+                                                        .sum();
+
+                                        LocalDate firstDate = schedules.stream()
+                                                        .map(MovieScheduleRepository.ScheduleSummary::getStartDate)
+                                                        .filter(java.util.Objects::nonNull)
                                                         .min(Comparator.naturalOrder())
                                                         .orElse(null);
 
-                                        LocalDate lastDate = group.stream()
-                                                        .map(ShowEntity::getShowDate)
+                                        LocalDate lastDate = schedules.stream()
+                                                        .map(MovieScheduleRepository.ScheduleSummary::getEndDate)
+                                                        .filter(java.util.Objects::nonNull)
                                                         .max(Comparator.naturalOrder())
                                                         .orElse(null);
 
-                                        long totalBookings = bookingRepository.countByShowIn(group);
-
-                                        // Calculate total revenue from confirmed bookings for these shows
-                                        List<BookingEntity> confirmedBookings = bookingRepository.findByShowInAndStatus(
-                                                        group, com.excelr.entity.Status.CONFIRMED);
-                                        double totalRevenue = confirmedBookings.stream()
-                                                        .mapToDouble(b -> b.getTotalAmount() != null
-                                                                        ? b.getTotalAmount().doubleValue()
-                                                                        : 0.0)
-                                                        .sum();
-
-                                        // Get unique theatre names for this movie
-                                        String theatres = group.stream()
-                                                        .map(show -> show.getVenue().getName())
+                                        // Unique theatre names for this movie, in first-schedule order
+                                        String theatres = schedules.stream()
+                                                        .map(MovieScheduleRepository.ScheduleSummary::getVenueName)
                                                         .distinct()
                                                         .collect(Collectors.joining(", "));
 
-                                        // Only expose metrics if a specific owner is requesting their dashboard
-                                        // If this is public view (ownerId == null), mask these values
-                                        long safeBookings = (ownerId != null) ? totalBookings : 0;
-                                        double safeRevenue = (ownerId != null) ? totalRevenue : 0.0;
+                                        BookingRollupRepository.MovieTotals stats = bookingStats.get(tmdbMovieId);
+                                        long safeBookings = stats != null && stats.getBookings() != null
+                                                        ? stats.getBookings()
+                                                        : 0;
+                                        double safeRevenue = stats != null && stats.getRevenue() != null
+                                                        ? stats.getRevenue().doubleValue()
+                                                        : 0.0;
 
                                         return new MovieShowSummary(
                                                         tmdbMovieId,
-                                                        group.size(),
+                                                        (int) showCount,
                                                         firstDate,
                                                         lastDate,
                                                         safeBookings,
@@ -149,43 +176,51 @@ public class ShowController {
                         @PathVariable Long tmdbMovieId,
                         @RequestParam Long ownerId) {
 
-                // 1. Find all shows for this movie and owner
-                List<ShowEntity> shows = showRepository.findByTmdbMovieIdAndVenue_OwnerId(tmdbMovieId, ownerId);
-                if (shows.isEmpty()) {
+                // 1. Find the owner's schedules of this movie; with lazy generation they may have no shows yet
+                List<MovieScheduleEntity> schedules = movieScheduleRepository
+                                .findByTmdbMovieIdAndVenue_OwnerId(tmdbMovieId, ownerId);
+                if (schedules.isEmpty()) {
                         return ResponseEntity.notFound().build();
                 }
 
-                // 2. Check for confirmed bookings (revenue > 0)
-                List<BookingEntity> confirmedBookings = bookingRepository.findByShowInAndStatus(
-                                shows, com.excelr.entity.Status.CONFIRMED);
+                // Hold off show generation for these schedules until they are gone
+                List<Long> scheduleIds = schedules.stream().map(MovieScheduleEntity::getId).toList();
+                return showGenerationService.withSchedulesLocked(scheduleIds,
+                                () -> deleteSchedules(tmdbMovieId, ownerId, schedules));
+        }
 
-                if (!confirmedBookings.isEmpty()) {
-                        // If even one confirmed booking exists, we cannot delete (revenue generated)
-                        return ResponseEntity.badRequest()
-                                        .body("Cannot delete movie. There are active bookings generating revenue.");
-                }
+        private ResponseEntity<?> deleteSchedules(Long tmdbMovieId, Long ownerId,
+                        List<MovieScheduleEntity> schedules) {
+                // 2. Shows written so far (generated or materialized), read under the generation lock
+                List<ShowEntity> shows = showRepository.findByTmdbMovieIdAndVenue_OwnerId(tmdbMovieId, ownerId);
 
-                // 3. Delete any cancelled/failed bookings to clear FK constraints
-                List<BookingEntity> allBookings = bookingRepository.findByShowIn(shows);
-                if (!allBookings.isEmpty()) {
-                        bookingRepository.deleteAll(allBookings);
+                if (!shows.isEmpty()) {
+                        // 3. Check for confirmed bookings (revenue > 0)
+                        List<BookingEntity> confirmedBookings = bookingRepository.findByShowInAndStatus(
+                                        shows, com.excelr.entity.Status.CONFIRMED);
+
+                        if (!confirmedBookings.isEmpty()) {
+                                // If even one confirmed booking exists, we cannot delete (revenue generated)
+                                return ResponseEntity.badRequest()
+                                                .body("Cannot delete movie. There are active bookings generating revenue.");
+                        }
+
+                        // 4. Delete any cancelled/failed bookings to clear FK constraints
+                        List<BookingEntity> allBookings = bookingRepository.findByShowIn(shows);
+                        if (!allBookings.isEmpty()) {
+                                bookingRepository.deleteAll(allBookings);
+                        }
+
+                        // 5. Delete shows
+                        showRepository.deleteAll(shows);
+                        shows.forEach(show -> seatInventoryService.evict(show.getId()));
                 }
 
-                // 4. Identify schedules to delete (orphan cleanup)
-                List<MovieScheduleEntity> schedules = shows.stream()
-                                .map(ShowEntity::getSchedule)
-                                .distinct()
-                                .toList();
-
-                // 5. Delete shows
-                showRepository.deleteAll(shows);
-
-                // 6. Delete schedules
-                try {
-                        movieScheduleRepository.deleteAll(schedules);
-                } catch (Exception e) {
-                        // ignore
-                }
+                // 6. Delete schedules; a failure here is reported, not ignored
+                movieScheduleRepository.deleteAll(schedules);
+                schedules.stream().map(schedule -> schedule.getVenue().getId()).distinct()
+                                .forEach(venueId -> eventPublisher.publishEvent(
+                                                new ShowServiceImpl.ShowsChanged(venueId)));
 
                 return ResponseEntity.ok().build();
         }
@@ -5,15 +5,19 @@ import com.excelr.entity.VenueEntity;
 import com.excelr.entity.VenueType;
 import com.excelr.repository.UserRepository;
 import com.excelr.repository.VenueRepository;
+import com.excelr.service.AggregateVersions;
 import com.excelr.service.impl.VenueServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
 
+import static com.excelr.service.AggregateVersions.key;
+
 /**
  * Controller for theatre / event-ground venues used in Owner dashboard.
  *
@@ -31,6 +35,7 @@ public class VenueController {
     private final VenueServiceImpl venueService;
     private final VenueRepository venueRepository;
     private final UserRepository userRepository;
+    private final AggregateVersions aggregateVersions;
 
     @PostMapping
     public ResponseEntity<VenueEntity> createVenue(@RequestBody CreateVenueRequest request) {
@@ -98,7 +103,7 @@ public class VenueController {
         venue.setCapacity(request.capacity());
         venue.setAmenities(request.amenities());
 
-        VenueEntity saved = venueRepository.save(venue);
+        VenueEntity saved = venueService.updateVenue(venue);
         return ResponseEntity.ok(saved);
     }
 
@@ -111,14 +116,22 @@ public class VenueController {
     }
 
     @GetMapping
-    public ResponseEntity<List<VenueEntity>> getAllVenues() {
-        return ResponseEntity.ok(venueRepository.findAll());
+    public ResponseEntity<List<VenueEntity>> getAllVenues(WebRequest webRequest) {
+        String etag = aggregateVersions.etag(key(AggregateVersions.VENUE, AggregateVersions.ALL));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304, nothing loaded
+        }
+        return ResponseEntity.ok().eTag(etag).body(venueService.getAllVenues());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<VenueEntity> getVenue(@PathVariable Long id) {
-        return venueRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<VenueEntity> getVenue(@PathVariable Long id, WebRequest webRequest) {
+        String etag = aggregateVersions.etag(key(AggregateVersions.VENUE, id));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304, nothing loaded
+        }
+        return venueService.getVenue(id)
+                .map(venue -> ResponseEntity.ok().eTag(etag).body(venue))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -142,7 +155,7 @@ public class VenueController {
         }
 
         try {
-            venueRepository.deleteById(id);
+            venueService.deleteVenue(id);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             // Likely FK constraint (shows/schedules/events reference this venue)
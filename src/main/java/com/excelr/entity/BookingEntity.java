@@ -10,10 +10,15 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_show_status", columnList = "show_id, status"),
+        @Index(name = "idx_bookings_event_date_status", columnList = "event_id, event_date_id, status"),
+        @Index(name = "idx_bookings_user_booked_at", columnList = "user_id, booked_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -58,6 +63,11 @@ public class BookingEntity {
     @Column(length = 50)
     private String eventDateId; // For events: which date from eventConfig.dates
 
+    private LocalDate eventDate; // For events: calendar day of eventDateId (null if unknown)
+
+    // booking_seats / booking_zone_passes rows written (or not needed); null on bookings not yet migrated
+    private Boolean normalized;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String bookingDetails; // JSON: seats for movies, zones for events
 
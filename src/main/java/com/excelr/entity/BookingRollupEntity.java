@@ -0,0 +1,52 @@
+package com.excelr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of confirmed bookings for one show, event or owner shard.
+ *
+ * Rows are never written through JPA: BookingRollupRepository.addToRollup
+ * upserts deltas in the same transaction as the booking create/cancel, so the
+ * counters always match the bookings table.
+ */
+@Entity
+@Table(name = "booking_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_rollups_scope_key", columnNames = { "scope", "scope_key" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingRollupEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RollupScope scope;
+
+    @Column(name = "scope_key", nullable = false, length = 64)
+    private String scopeKey;
+
+    @Column(nullable = false)
+    private long bookings;
+
+    @Column(nullable = false)
+    private long seats; // movie seats or event passes
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.excelr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One booked seat of a confirmed movie booking.
+ *
+ * Rows exist only while the booking is active: they are written together with
+ * the booking and deleted when it is cancelled, so the unique key on
+ * (show_id, seat_label) guarantees a seat is sold at most once per show.
+ */
+@Entity
+@Table(name = "booking_seats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_seats_show_seat", columnNames = { "show_id", "seat_label" }),
+        indexes = @Index(name = "idx_booking_seats_booking", columnList = "booking_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingSeatEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", nullable = false)
+    @org.hibernate.annotations.OnDelete(action = org.hibernate.annotations.OnDeleteAction.CASCADE)
+    private BookingEntity booking; // FK to bookings
+
+    @Column(name = "show_id", nullable = false)
+    private Long showId;
+
+    @Column(name = "seat_label", nullable = false, length = 10)
+    private String seatLabel; // "A1", "K12"
+
+    @Column(length = 10)
+    private String tier; // VIP for rows the show's seatState lists as VIP rows; null when the layout doesn't say
+}
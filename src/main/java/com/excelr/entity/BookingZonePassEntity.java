@@ -0,0 +1,51 @@
+package com.excelr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Passes bought for one zone of an event date by a confirmed event booking.
+ *
+ * Like booking_seats, rows exist only while the booking is active.
+ */
+@Entity
+@Table(name = "booking_zone_passes",
+        indexes = {
+                @Index(name = "idx_zone_passes_event_date", columnList = "event_id, date_id, zone"),
+                @Index(name = "idx_zone_passes_booking", columnList = "booking_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingZonePassEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", nullable = false)
+    @org.hibernate.annotations.OnDelete(action = org.hibernate.annotations.OnDeleteAction.CASCADE)
+    private BookingEntity booking; // FK to bookings
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "date_id", nullable = false, length = 50)
+    private String dateId; // id from eventConfig.dates
+
+    @Column(nullable = false, length = 100)
+    private String zone;
+
+    @Column(nullable = false)
+    private Integer adult;
+
+    @Column(nullable = false)
+    private Integer child;
+}
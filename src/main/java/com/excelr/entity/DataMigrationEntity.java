@@ -0,0 +1,32 @@
+package com.excelr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A data migration that has run to completion.
+ *
+ * Start-up migrations check for their row before running and write it when
+ * they finish, so each runs once per database, and again only if it was
+ * interrupted.
+ */
+@Entity
+@Table(name = "data_migrations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataMigrationEntity {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -59,6 +59,8 @@ public class MovieScheduleEntity {
     @Column(nullable = false, length = 20)
     private Status status; // ACTIVE, CANCELLED, COMPLETED
 
+    private LocalDate generatedUntil; // Last date whose shows exist; null = all generated up front (older schedules)
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -0,0 +1,63 @@
+package com.excelr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running rating totals of one movie or event: sum and count of stars plus a
+ * per-star histogram.
+ *
+ * Rows are never written through JPA: RatingAggregateRepository.addToAggregate
+ * upserts deltas in the same transaction as the rating insert/update/delete,
+ * so the totals always match the ratings table.
+ */
+@Entity
+@Table(name = "rating_aggregates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rating_aggregates_item", columnNames = { "item_type", "item_id" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregateEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "item_type", nullable = false, length = 20)
+    private String itemType; // "movie" or "event"
+
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(nullable = false)
+    private long stars1;
+
+    @Column(nullable = false)
+    private long stars2;
+
+    @Column(nullable = false)
+    private long stars3;
+
+    @Column(nullable = false)
+    private long stars4;
+
+    @Column(nullable = false)
+    private long stars5;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
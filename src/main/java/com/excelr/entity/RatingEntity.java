@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ratings", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "user_id", "item_id", "item_type" })
+}, indexes = {
+        @Index(name = "idx_ratings_item", columnList = "item_id, item_type, rating")
 })
 @Getter
 @Setter
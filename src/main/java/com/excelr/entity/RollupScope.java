@@ -0,0 +1,7 @@
+package com.excelr.entity;
+
+public enum RollupScope {
+    SHOW,  // key: show id
+    EVENT, // key: event id
+    OWNER  // key: "ownerId:shard", movies and events together (see BookingRollupService.OWNER_SHARDS)
+}
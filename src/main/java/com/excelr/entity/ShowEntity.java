@@ -15,7 +15,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shows")
+@Table(name = "shows", indexes = {
+        @Index(name = "idx_shows_venue_date_movie", columnList = "venue_id, show_date, tmdb_movie_id"),
+        @Index(name = "idx_shows_movie", columnList = "tmdb_movie_id"),
+        @Index(name = "idx_shows_schedule_date_time", columnList = "schedule_id, show_date, show_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
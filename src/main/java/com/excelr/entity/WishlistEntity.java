@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "wishlist")
+@Table(name = "wishlist", indexes = {
+        @Index(name = "idx_wishlist_user_item", columnList = "user_id, item_id, type")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,18 +1,52 @@
 package com.excelr.repository;
 
 import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingType;
 import com.excelr.entity.EventEntity;
+import com.excelr.entity.PaymentStatus;
 import com.excelr.entity.ShowEntity;
 import com.excelr.entity.Status;
 import com.excelr.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
 
+        // Admin booking list: one row per booking with user, show, event and venues joined in
+        String BOOKING_LIST_SELECT = "SELECT b.id AS id, b.bookingCode AS bookingCode, u.name AS userName, "
+                        + "b.type AS type, s.id AS showId, s.tmdbMovieId AS tmdbMovieId, s.showDate AS showDate, "
+                        + "s.showTime AS showTime, sv.id AS showVenueId, sv.name AS showVenueName, "
+                        + "e.id AS eventId, e.title AS eventTitle, e.eventConfig AS eventConfig, "
+                        + "ev.id AS eventVenueId, ev.name AS eventVenueName, e.address AS eventAddress, "
+                        + "e.posterUrl AS eventPosterUrl, b.bookingDetails AS bookingDetails, "
+                        + "b.totalAmount AS totalAmount, b.status AS status, b.bookedAt AS bookedAt "
+                        + "FROM BookingEntity b LEFT JOIN b.user u LEFT JOIN b.show s LEFT JOIN s.venue sv "
+                        + "LEFT JOIN b.event e LEFT JOIN e.venue ev ";
+
+        // "My bookings" row built by a constructor expression; eventConfig is never selected
+        String MY_BOOKING_SELECT = "SELECT new com.excelr.repository.BookingRepository$MyBookingRow("
+                        + "b.id, b.bookingCode, b.type, b.status, b.paymentStatus, b.totalAmount, b.bookedAt, "
+                        + "b.bookingDetails, COALESCE(s.showDate, b.eventDate), s.id, s.tmdbMovieId, s.showTime, "
+                        + "e.id, e.title, e.posterUrl, b.eventDateId, COALESCE(sv.name, ev.name, e.address)) "
+                        + "FROM BookingEntity b LEFT JOIN b.show s LEFT JOIN s.venue sv "
+                        + "LEFT JOIN b.event e LEFT JOIN e.venue ev WHERE b.user.id = :userId ";
+
         @EntityGraph(attributePaths = { "user", "show", "show.venue", "show.schedule", "show.schedule.venue", "event",
                         "event.venue" })
         List<BookingEntity> findByUser(UserEntity user);
@@ -23,12 +57,6 @@ public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
                         "event.venue" })
         Optional<BookingEntity> findById(Long id);
 
-        // Find bookings by show ID and status
-        List<BookingEntity> findByShowIdAndStatus(Long showId, Status status);
-
-        // Find bookings by event ID, event date ID, and status
-        List<BookingEntity> findByEventIdAndEventDateIdAndStatus(Long eventId, String eventDateId, Status status);
-
         // Find bookings by event and status
         List<BookingEntity> findByEventAndStatus(EventEntity event, Status status);
 
@@ -57,11 +85,121 @@ public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
         @EntityGraph(attributePaths = { "event", "event.venue" })
         List<BookingEntity> findByEventId(Long eventId);
 
-        // Owner-specific analytics
-        @EntityGraph(attributePaths = { "show", "show.venue", "show.schedule" })
-        List<BookingEntity> findByShowTmdbMovieIdAndShowVenueOwnerIdAndStatus(Long tmdbMovieId, Long ownerId,
-                        Status status);
+        // Owner-specific analytics: inner joins so the plan can start from idx_shows_movie and reach
+        // bookings through idx_bookings_show_status
+        @Query("SELECT b FROM BookingEntity b JOIN FETCH b.show s JOIN FETCH s.venue v LEFT JOIN FETCH s.schedule "
+                        + "WHERE s.tmdbMovieId = :tmdbMovieId AND v.owner.id = :ownerId AND b.status = :status")
+        List<BookingEntity> findByShowTmdbMovieIdAndShowVenueOwnerIdAndStatus(@Param("tmdbMovieId") Long tmdbMovieId,
+                        @Param("ownerId") Long ownerId, @Param("status") Status status);
 
         @EntityGraph(attributePaths = { "event", "event.venue" })
         List<BookingEntity> findByEventIdAndEventOwnerIdAndStatus(Long eventId, Long ownerId, Status status);
+
+        // Keyset page of the admin booking list (id > afterId)
+        @Query(BOOKING_LIST_SELECT + "WHERE b.id > :afterId ORDER BY b.id")
+        List<BookingListRow> findBookingListPage(@Param("afterId") Long afterId, Pageable pageable);
+
+        // Full admin booking list as a stream; must be consumed inside a transaction. A fetch size of
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one for this query only (the
+        // connection stays busy until the stream is closed) instead of buffering the whole result
+        @Query(BOOKING_LIST_SELECT + "ORDER BY b.id")
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+        Stream<BookingListRow> streamBookingList();
+
+        // My bookings, soonest first: shows/event dates from today on
+        @Query(MY_BOOKING_SELECT + "AND COALESCE(s.showDate, b.eventDate) >= :today "
+                        + "ORDER BY COALESCE(s.showDate, b.eventDate) ASC, s.showTime ASC, b.id ASC")
+        Slice<MyBookingRow> findUpcomingForUser(@Param("userId") Long userId, @Param("today") LocalDate today,
+                        Pageable pageable);
+
+        // My bookings, most recent first: dates before today, then undated bookings by booking time
+        @Query(MY_BOOKING_SELECT + "AND (COALESCE(s.showDate, b.eventDate) < :today "
+                        + "OR COALESCE(s.showDate, b.eventDate) IS NULL) "
+                        + "ORDER BY COALESCE(s.showDate, b.eventDate) DESC, b.bookedAt DESC, b.id DESC")
+        Slice<MyBookingRow> findPastForUser(@Param("userId") Long userId, @Param("today") LocalDate today,
+                        Pageable pageable);
+
+        // Cancel a booking unless it already is; 0 means another request cancelled it first
+        @Modifying
+        @Query("UPDATE BookingEntity b SET b.status = :cancelled, b.paymentStatus = :refunded "
+                        + "WHERE b.id = :id AND b.status <> :cancelled")
+        int markCancelled(@Param("id") Long id, @Param("cancelled") Status cancelled,
+                        @Param("refunded") PaymentStatus refunded);
+
+        // Rollup rebuild: keyset pages over bookings with a given status
+        @EntityGraph(attributePaths = { "show", "show.venue", "event" })
+        List<BookingEntity> findByStatusAndIdGreaterThanOrderByIdAsc(Status status, Long afterId, Pageable pageable);
+
+        // Backfill: keyset page of bookings not migrated to booking_seats / booking_zone_passes yet
+        @EntityGraph(attributePaths = { "show", "event" })
+        @Query("SELECT b FROM BookingEntity b WHERE b.normalized IS NULL AND b.id > :afterId ORDER BY b.id")
+        List<BookingEntity> findUnnormalizedBookings(@Param("afterId") Long afterId, Pageable pageable);
+
+        @Modifying
+        @Query("UPDATE BookingEntity b SET b.normalized = true WHERE b.id IN :ids")
+        int markNormalized(@Param("ids") Collection<Long> ids);
+
+        interface BookingListRow {
+                Long getId();
+
+                String getBookingCode();
+
+                String getUserName();
+
+                BookingType getType();
+
+                Long getShowId();
+
+                Long getTmdbMovieId();
+
+                LocalDate getShowDate();
+
+                String getShowTime();
+
+                Long getShowVenueId();
+
+                String getShowVenueName();
+
+                Long getEventId();
+
+                String getEventTitle();
+
+                String getEventConfig();
+
+                Long getEventVenueId();
+
+                String getEventVenueName();
+
+                String getEventAddress();
+
+                String getEventPosterUrl();
+
+                String getBookingDetails();
+
+                BigDecimal getTotalAmount();
+
+                Status getStatus();
+
+                LocalDateTime getBookedAt();
+        }
+
+        record MyBookingRow(
+                        Long id,
+                        String bookingCode,
+                        BookingType type,
+                        Status status,
+                        PaymentStatus paymentStatus,
+                        BigDecimal totalAmount,
+                        LocalDateTime bookedAt,
+                        String bookingDetails,
+                        LocalDate date,
+                        Long showId,
+                        Long tmdbMovieId,
+                        String showTime,
+                        Long eventId,
+                        String eventTitle,
+                        String eventPosterUrl,
+                        String eventDateId,
+                        String venueName) {
+        }
 }
@@ -0,0 +1,73 @@
+package com.excelr.repository;
+
+import com.excelr.entity.BookingRollupEntity;
+import com.excelr.entity.RollupScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRollupRepository extends JpaRepository<BookingRollupEntity, Long> {
+
+    List<BookingRollupEntity> findByScopeAndScopeKeyIn(RollupScope scope, Collection<String> scopeKeys);
+
+    // Analytics: SHOW rollups of a movie's shows per venue (ownerId null = all owners)
+    @Query("SELECT v.name AS venue, SUM(r.revenue) AS revenue, SUM(r.bookings) AS bookings, SUM(r.seats) AS seats "
+            + "FROM ShowEntity s JOIN s.venue v "
+            + "JOIN BookingRollupEntity r ON r.scope = :scope AND r.scopeKey = CAST(s.id AS String) "
+            + "WHERE s.tmdbMovieId = :movieId AND (:ownerId IS NULL OR v.owner.id = :ownerId) GROUP BY v.name")
+    List<VenueTotals> sumMovieRollupsByVenue(@Param("movieId") Long movieId, @Param("ownerId") Long ownerId,
+            @Param("scope") RollupScope scope);
+
+    // Analytics: the EVENT rollup of one event under its venue name (ownerId null = all owners)
+    @Query("SELECT COALESCE(v.name, e.address) AS venue, r.revenue AS revenue, r.bookings AS bookings, "
+            + "r.seats AS seats FROM EventEntity e LEFT JOIN e.venue v "
+            + "JOIN BookingRollupEntity r ON r.scope = :scope AND r.scopeKey = CAST(e.id AS String) "
+            + "WHERE e.id = :eventId AND (:ownerId IS NULL OR e.owner.id = :ownerId)")
+    List<VenueTotals> findEventRollupByVenue(@Param("eventId") Long eventId, @Param("ownerId") Long ownerId,
+            @Param("scope") RollupScope scope);
+
+    // Movie summary: confirmed bookings and revenue per movie across an owner's shows
+    @Query("SELECT s.tmdbMovieId AS tmdbMovieId, SUM(r.bookings) AS bookings, SUM(r.revenue) AS revenue "
+            + "FROM ShowEntity s JOIN s.venue v "
+            + "JOIN BookingRollupEntity r ON r.scope = :scope AND r.scopeKey = CAST(s.id AS String) "
+            + "WHERE v.owner.id = :ownerId GROUP BY s.tmdbMovieId")
+    List<MovieTotals> sumShowRollupsByMovieForOwner(@Param("ownerId") Long ownerId,
+            @Param("scope") RollupScope scope);
+
+    // Atomic add-or-create of one rollup row (MySQL 8 upsert on uk_booking_rollups_scope_key)
+    @Modifying
+    @Query(value = "INSERT INTO booking_rollups (scope, scope_key, bookings, seats, revenue, updated_at) "
+            + "VALUES (:scope, :scopeKey, :bookings, :seats, :revenue, NOW()) AS delta "
+            + "ON DUPLICATE KEY UPDATE bookings = booking_rollups.bookings + delta.bookings, "
+            + "seats = booking_rollups.seats + delta.seats, revenue = booking_rollups.revenue + delta.revenue, "
+            + "updated_at = delta.updated_at", nativeQuery = true)
+    int addToRollup(@Param("scope") String scope, @Param("scopeKey") String scopeKey,
+            @Param("bookings") long bookings, @Param("seats") long seats, @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("DELETE FROM BookingRollupEntity r")
+    int deleteAllRollups();
+
+    interface VenueTotals {
+        String getVenue();
+
+        BigDecimal getRevenue();
+
+        Long getBookings();
+
+        Long getSeats();
+    }
+
+    interface MovieTotals {
+        Long getTmdbMovieId();
+
+        Long getBookings();
+
+        BigDecimal getRevenue();
+    }
+}
@@ -0,0 +1,22 @@
+package com.excelr.repository;
+
+import com.excelr.entity.BookingSeatEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookingSeatRepository extends JpaRepository<BookingSeatEntity, Long> {
+
+    // Seats held by active bookings of a show (served by uk_booking_seats_show_seat)
+    @Query("SELECT s.seatLabel FROM BookingSeatEntity s WHERE s.showId = :showId")
+    List<String> findSeatLabelsByShowId(@Param("showId") Long showId);
+
+    @Modifying
+    @Query("DELETE FROM BookingSeatEntity s WHERE s.booking.id = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    boolean existsByBookingId(Long bookingId);
+}
@@ -0,0 +1,29 @@
+package com.excelr.repository;
+
+import com.excelr.entity.BookingZonePassEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookingZonePassRepository extends JpaRepository<BookingZonePassEntity, Long> {
+
+    // Booked passes per zone for an event date (served by idx_zone_passes_event_date)
+    @Query("SELECT p.zone AS zone, SUM(p.adult + p.child) AS passes FROM BookingZonePassEntity p "
+            + "WHERE p.eventId = :eventId AND p.dateId = :dateId GROUP BY p.zone")
+    List<ZonePassCount> sumPassesByZone(@Param("eventId") Long eventId, @Param("dateId") String dateId);
+
+    @Modifying
+    @Query("DELETE FROM BookingZonePassEntity p WHERE p.booking.id = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    boolean existsByBookingId(Long bookingId);
+
+    interface ZonePassCount {
+        String getZone();
+
+        Long getPasses();
+    }
+}
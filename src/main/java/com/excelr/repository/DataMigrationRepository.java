@@ -0,0 +1,7 @@
+package com.excelr.repository;
+
+import com.excelr.entity.DataMigrationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataMigrationRepository extends JpaRepository<DataMigrationEntity, String> {
+}
@@ -1,8 +1,12 @@
 package com.excelr.repository;
 
 import com.excelr.entity.MovieScheduleEntity;
+import com.excelr.entity.Status;
 import com.excelr.entity.VenueEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,5 +15,45 @@ public interface MovieScheduleRepository extends JpaRepository<MovieScheduleEnti
 
     List<MovieScheduleEntity> findByVenueAndEndDateGreaterThanEqual(VenueEntity venue, LocalDate date);
 
+    // Schedules of a venue running on the given date
+    @Query("SELECT s FROM MovieScheduleEntity s WHERE s.venue = :venue AND s.status = :status "
+            + "AND s.startDate <= :date AND s.endDate >= :date")
+    List<MovieScheduleEntity> findActiveForVenueOn(@Param("venue") VenueEntity venue, @Param("date") LocalDate date,
+            @Param("status") Status status);
+
+    // Schedules of a venue whose shows are not generated up to the given date yet
+    @Query("SELECT s FROM MovieScheduleEntity s WHERE s.venue = :venue AND s.status = :status "
+            + "AND s.generatedUntil < :date AND s.generatedUntil < s.endDate")
+    List<MovieScheduleEntity> findPendingForVenue(@Param("venue") VenueEntity venue, @Param("date") LocalDate date,
+            @Param("status") Status status);
+
+    // Schedules whose generated window ends before the given horizon
+    @Query("SELECT s FROM MovieScheduleEntity s WHERE s.status = :status "
+            + "AND s.generatedUntil < :horizon AND s.generatedUntil < s.endDate")
+    List<MovieScheduleEntity> findPendingBefore(@Param("horizon") LocalDate horizon, @Param("status") Status status);
+
+    List<MovieScheduleEntity> findByTmdbMovieIdAndVenue_OwnerId(Long tmdbMovieId, Long ownerId);
+
+    // Movie summary: one row per schedule, movies and venues in first-schedule order (ownerId null = all)
+    @Query("SELECT s.tmdbMovieId AS tmdbMovieId, v.name AS venueName, s.startDate AS startDate, "
+            + "s.endDate AS endDate, s.showtimes AS showtimes FROM MovieScheduleEntity s JOIN s.venue v "
+            + "WHERE (:ownerId IS NULL OR v.owner.id = :ownerId) ORDER BY s.tmdbMovieId, s.id")
+    List<ScheduleSummary> findForSummary(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("UPDATE MovieScheduleEntity s SET s.generatedUntil = :generatedUntil WHERE s.id = :id")
+    int updateGeneratedUntil(@Param("id") Long id, @Param("generatedUntil") LocalDate generatedUntil);
+
+    interface ScheduleSummary {
+        Long getTmdbMovieId();
+
+        String getVenueName();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+
+        String getShowtimes();
+    }
 }
 
@@ -0,0 +1,38 @@
+package com.excelr.repository;
+
+import com.excelr.entity.RatingAggregateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregateEntity, Long> {
+
+    Optional<RatingAggregateEntity> findByItemTypeAndItemId(String itemType, String itemId);
+
+    List<RatingAggregateEntity> findByItemTypeInAndItemIdIn(Collection<String> itemTypes, Collection<String> itemIds);
+
+    // Atomic add-or-create of one item's totals (MySQL 8 upsert on uk_rating_aggregates_item)
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (item_type, item_id, rating_sum, rating_count, "
+            + "stars1, stars2, stars3, stars4, stars5, updated_at) "
+            + "VALUES (:itemType, :itemId, :sum, :count, :s1, :s2, :s3, :s4, :s5, NOW()) AS delta "
+            + "ON DUPLICATE KEY UPDATE rating_sum = rating_aggregates.rating_sum + delta.rating_sum, "
+            + "rating_count = rating_aggregates.rating_count + delta.rating_count, "
+            + "stars1 = rating_aggregates.stars1 + delta.stars1, stars2 = rating_aggregates.stars2 + delta.stars2, "
+            + "stars3 = rating_aggregates.stars3 + delta.stars3, stars4 = rating_aggregates.stars4 + delta.stars4, "
+            + "stars5 = rating_aggregates.stars5 + delta.stars5, updated_at = delta.updated_at",
+            nativeQuery = true)
+    int addToAggregate(@Param("itemType") String itemType, @Param("itemId") String itemId,
+            @Param("sum") long sum, @Param("count") long count, @Param("s1") long stars1,
+            @Param("s2") long stars2, @Param("s3") long stars3, @Param("s4") long stars4,
+            @Param("s5") long stars5);
+
+    @Modifying
+    @Query("DELETE FROM RatingAggregateEntity a")
+    int deleteAllAggregates();
+}
@@ -1,7 +1,10 @@
 package com.excelr.repository;
 
 import com.excelr.entity.RatingEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,23 +26,59 @@ public interface RatingRepository extends JpaRepository<RatingEntity, Long> {
     List<RatingEntity> findByItemIdAndItemType(String itemId, String itemType);
 
     /**
-     * Calculate average rating for an item
+     * Check if user has already rated an item
      */
-    @Query("SELECT AVG(r.rating) FROM RatingEntity r WHERE r.itemId = :itemId AND r.itemType = :itemType")
-    Double findAverageRatingByItemIdAndItemType(@Param("itemId") String itemId, @Param("itemType") String itemType);
+    boolean existsByUserIdAndItemIdAndItemType(Long userId, String itemId, String itemType);
 
     /**
-     * Count total ratings for an item
+     * Find all ratings by a user
      */
-    Long countByItemIdAndItemType(String itemId, String itemType);
+    List<RatingEntity> findByUserId(Long userId);
 
     /**
-     * Check if user has already rated an item
+     * User's rating for an item, row-locked until the transaction ends
      */
-    boolean existsByUserIdAndItemIdAndItemType(Long userId, String itemId, String itemType);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RatingEntity r WHERE r.user.id = :userId AND r.itemId = :itemId AND r.itemType = :itemType")
+    Optional<RatingEntity> findForUpdate(@Param("userId") Long userId, @Param("itemId") String itemId,
+            @Param("itemType") String itemType);
 
     /**
-     * Find all ratings by a user
+     * Delete a rating by id; returns 0 if it was already gone
      */
-    List<RatingEntity> findByUserId(Long userId);
+    @Modifying
+    @Query("DELETE FROM RatingEntity r WHERE r.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    /**
+     * Sum, count and star histogram per item, for rebuilding rating_aggregates
+     */
+    @Query("SELECT r.itemType AS itemType, r.itemId AS itemId, SUM(r.rating) AS ratingSum, COUNT(r) AS ratingCount, "
+            + "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS stars1, "
+            + "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS stars2, "
+            + "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS stars3, "
+            + "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS stars4, "
+            + "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS stars5 "
+            + "FROM RatingEntity r GROUP BY r.itemType, r.itemId")
+    List<ItemRatingTotals> sumRatingsByItem();
+
+    interface ItemRatingTotals {
+        String getItemType();
+
+        String getItemId();
+
+        Long getRatingSum();
+
+        Long getRatingCount();
+
+        Long getStars1();
+
+        Long getStars2();
+
+        Long getStars3();
+
+        Long getStars4();
+
+        Long getStars5();
+    }
 }
@@ -0,0 +1,58 @@
+package com.excelr.repository;
+
+import com.excelr.entity.ShowEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk insert path for generated shows.
+ *
+ * ShowEntity uses IDENTITY ids, which makes Hibernate insert one row per
+ * statement. Generated shows are never read back in the same request, so they
+ * are written with plain JDBC batches instead; with the driver's
+ * rewriteBatchedStatements every batch becomes a single multi-row INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShowBulkWriter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO shows (venue_id, schedule_id, tmdb_movie_id, show_date, "
+            + "show_time, silver_price, gold_price, vip_price, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all shows in batches within one transaction.
+     *
+     * @return number of shows written
+     */
+    @Transactional
+    public int insertAll(List<ShowEntity> shows) {
+        if (shows.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, shows, BATCH_SIZE, (ps, show) -> {
+            ps.setLong(1, show.getVenue().getId());
+            ps.setLong(2, show.getSchedule().getId());
+            ps.setLong(3, show.getTmdbMovieId());
+            ps.setDate(4, Date.valueOf(show.getShowDate()));
+            ps.setString(5, show.getShowTime());
+            ps.setBigDecimal(6, show.getSilverPrice());
+            ps.setBigDecimal(7, show.getGoldPrice());
+            ps.setBigDecimal(8, show.getVipPrice());
+            ps.setString(9, show.getStatus().name());
+            ps.setTimestamp(10, now);
+        });
+        return shows.size();
+    }
+}
@@ -3,9 +3,13 @@ package com.excelr.repository;
 import com.excelr.entity.ShowEntity;
 import com.excelr.entity.VenueEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ShowRepository extends JpaRepository<ShowEntity, Long> {
 
@@ -16,4 +20,12 @@ public interface ShowRepository extends JpaRepository<ShowEntity, Long> {
     List<ShowEntity> findByVenue_OwnerId(Long ownerId);
 
     List<ShowEntity> findByTmdbMovieIdAndVenue_OwnerId(Long tmdbMovieId, Long ownerId);
+
+    // Materialized row of a virtual show
+    Optional<ShowEntity> findFirstByScheduleIdAndShowDateAndShowTime(Long scheduleId, LocalDate showDate,
+            String showTime);
+
+    // Seat-map sweep: which of the given shows are dated before the given day
+    @Query("SELECT s.id FROM ShowEntity s WHERE s.id IN :ids AND s.showDate < :day")
+    List<Long> findIdsDatedBefore(@Param("ids") Collection<Long> ids, @Param("day") LocalDate day);
 }
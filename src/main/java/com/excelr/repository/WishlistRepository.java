@@ -2,11 +2,16 @@ package com.excelr.repository;
 
 import com.excelr.entity.WishlistEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
 public interface WishlistRepository extends JpaRepository<WishlistEntity, Long> {
     List<WishlistEntity> findByUserId(Long userId);
-    Optional<WishlistEntity> findByUserIdAndItemIdAndType(Long userId, String itemId, String type);
+    // Filters on the user_id column itself so idx_wishlist_user_item applies (the derived query joins users)
+    @Query("SELECT w FROM WishlistEntity w WHERE w.user.id = :userId AND w.itemId = :itemId AND w.type = :type")
+    Optional<WishlistEntity> findByUserIdAndItemIdAndType(@Param("userId") Long userId, @Param("itemId") String itemId,
+            @Param("type") String type);
     void deleteByUserIdAndItemIdAndType(Long userId, String itemId, String type);
 }
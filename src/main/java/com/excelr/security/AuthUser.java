@@ -0,0 +1,32 @@
+package com.excelr.security;
+
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal that also carries the user's database id, so
+ * controllers can identify the caller without looking the user up again.
+ */
+@Getter
+public class AuthUser extends User {
+
+    private final Long id;
+
+    public AuthUser(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+    }
+
+    /**
+     * Principal of the current request, or null when the caller is anonymous.
+     */
+    public static AuthUser current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthUser user ? user : null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.excelr.security;
 
 import com.excelr.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -31,6 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String userEmail;
 
         // Check for Bearer token
@@ -40,17 +41,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtUtils.extractUsername(jwt);
+        claims = jwtUtils.parseClaims(jwt); // the only parse of this token
+        userEmail = claims.getSubject();
 
         // If user is not authenticated yet in this context
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // Cached principal: no users query while the entry is fresh
+            AuthUser principal = this.userDetailsService.loadPrincipal(userEmail);
+            Long tokenUserId = jwtUtils.extractUserId(claims);
 
-            if (jwtUtils.isTokenValid(jwt, userDetails)) {
+            if (jwtUtils.isTokenValid(claims, principal)
+                    && (tokenUserId == null || tokenUserId.equals(principal.getId()))) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities());
+                        principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // Update Security Context
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -0,0 +1,95 @@
+package com.excelr.service;
+
+import com.excelr.controller.RatingController;
+import com.excelr.service.impl.EventServiceImpl;
+import com.excelr.service.impl.ShowServiceImpl;
+import com.excelr.service.impl.VenueServiceImpl;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters per aggregate (an event, a venue, the shows of
+ * a venue, the seat state of a show, the ratings of an item), bumped by the
+ * domain events the write paths publish.
+ *
+ * Controllers build ETags from these counters, so a conditional GET whose
+ * If-None-Match still matches is answered with 304 before any DB access.
+ * Counters live in memory, so every ETag also carries the boot epoch: after a
+ * restart all old ETags simply stop matching.
+ */
+@Component
+public class AggregateVersions {
+
+    public static final String EVENT = "event";
+    public static final String VENUE = "venue";
+    public static final String SHOWS = "shows";     // per venue
+    public static final String SEATS = "seats";     // per show
+    public static final String RATINGS = "ratings"; // per itemType:itemId
+    public static final String ALL = "all";         // id for "any item of this aggregate"
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Key, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public static Key key(String aggregate, Object id) {
+        return new Key(aggregate, String.valueOf(id));
+    }
+
+    public long version(Key key) {
+        AtomicLong version = versions.get(key);
+        return version != null ? version.get() : 0;
+    }
+
+    public void bump(Key key) {
+        versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Strong ETag over the current versions of the given aggregates, e.g.
+     * "event-12.venue-all.lq3x9k.4.1" (aggregates, boot epoch, versions).
+     */
+    public String etag(Key... keys) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (Key key : keys) {
+            tag.append(key.aggregate()).append('-').append(key.id()).append('.');
+        }
+        tag.append(epoch);
+        for (Key key : keys) {
+            tag.append('.').append(version(key));
+        }
+        return tag.append('"').toString();
+    }
+
+    @EventListener
+    public void onEventsChanged(EventServiceImpl.EventsChanged change) {
+        bump(key(EVENT, change.eventId()));
+        bump(key(EVENT, ALL));
+    }
+
+    @EventListener
+    public void onVenueChanged(VenueServiceImpl.VenueChanged change) {
+        bump(key(VENUE, change.venueId()));
+        bump(key(VENUE, ALL));
+    }
+
+    @EventListener
+    public void onShowsChanged(ShowServiceImpl.ShowsChanged change) {
+        bump(key(SHOWS, change.venueId()));
+    }
+
+    @EventListener
+    public void onSeatsChanged(SeatInventoryService.SeatsChanged change) {
+        bump(key(SEATS, change.showId()));
+    }
+
+    @EventListener
+    public void onRatingChanged(RatingController.RatingChanged change) {
+        bump(key(RATINGS, change.itemType() + ":" + change.itemId()));
+    }
+
+    public record Key(String aggregate, String id) {
+    }
+}
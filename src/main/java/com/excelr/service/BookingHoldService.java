@@ -0,0 +1,246 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Time-boxed holds (soft locks) on movie seats and event zone passes.
+ *
+ * A hold reserves inventory while the user is in the payment step. Seat holds
+ * claim bits on the show's seat bitmap, so held seats show up as blocked for
+ * everyone else; zone holds add to the held-pass counters of
+ * ZoneInventoryService, which zone availability subtracts.
+ *
+ * Active holds live in a ConcurrentHashMap keyed by hold id, which makes
+ * converting a hold into a booking an O(1) lookup. Expiry goes through a
+ * DelayQueue: a single sweeper thread blocks on take() and only wakes up when
+ * the next hold is due, so no periodic scan is needed. Holds that were
+ * confirmed or released early are left in the queue and skipped when they
+ * surface (their state is no longer ACTIVE).
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingHoldService {
+
+    private final SeatInventoryService seatInventoryService;
+    private final ZoneInventoryService zoneInventoryService;
+
+    @Value("${booking.hold.ttl-seconds:600}") // 10 minutes
+    private long holdTtlSeconds;
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiryQueue = new DelayQueue<>();
+
+    private Thread sweeper;
+
+    @PostConstruct
+    public void startSweeper() {
+        sweeper = new Thread(this::sweep, "booking-hold-sweeper");
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    @PreDestroy
+    public void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.interrupt();
+        }
+    }
+
+    /**
+     * Hold seats on a show for the given user.
+     *
+     * @throws SeatInventoryService.SeatsUnavailableException if any seat is taken or held
+     */
+    public Hold holdSeats(Long userId, Long showId, List<String> seats) {
+        if (seats == null || seats.isEmpty()) {
+            throw new IllegalArgumentException("No seats selected");
+        }
+        List<String> conflicts = seatInventoryService.tryClaim(showId, seats);
+        if (!conflicts.isEmpty()) {
+            throw new SeatInventoryService.SeatsUnavailableException(conflicts);
+        }
+        Hold hold = new Hold(BookingType.MOVIE, userId, showId, List.copyOf(seats), null, null, null,
+                holdTtlSeconds);
+        register(hold);
+        return hold;
+    }
+
+    /**
+     * Hold zone passes ({zone: {adult: n, child: m}}) for an event date.
+     */
+    public Hold holdZones(Long userId, Long eventId, String eventDateId,
+            Map<String, Map<String, Integer>> selectedZones) {
+        if (selectedZones == null || selectedZones.isEmpty()) {
+            throw new IllegalArgumentException("No zones selected");
+        }
+        Hold hold = new Hold(BookingType.EVENT, userId, null, null, eventId, eventDateId,
+                Collections.unmodifiableMap(new HashMap<>(selectedZones)), holdTtlSeconds);
+        zoneInventoryService.hold(eventId, eventDateId, hold.zones);
+        register(hold);
+        return hold;
+    }
+
+    /**
+     * Take an active hold for conversion into a booking. After this call the
+     * sweeper ignores the hold; the caller must finish with {@link #complete}
+     * or {@link #abandon}.
+     *
+     * @throws HoldUnavailableException if the hold is unknown, expired, already
+     *         used or belongs to another user
+     */
+    public Hold consume(String holdId, Long userId) {
+        Hold hold = holdId != null ? holds.get(holdId) : null;
+        if (hold == null || !Objects.equals(hold.userId, userId)
+                || !hold.state.compareAndSet(HoldState.ACTIVE, HoldState.CONSUMED)) {
+            throw new HoldUnavailableException(holdId);
+        }
+        holds.remove(holdId, hold);
+        return hold;
+    }
+
+    /**
+     * The booking for a consumed hold was saved: seats stay claimed (they now
+     * belong to the booking) and held zone passes move to booked.
+     */
+    public void complete(Hold hold) {
+        if (hold.type == BookingType.EVENT) {
+            zoneInventoryService.confirmHold(hold.eventId, hold.eventDateId, hold.zones);
+        }
+    }
+
+    /**
+     * Saving the booking for a consumed hold failed: give everything back.
+     */
+    public void abandon(Hold hold) {
+        releaseInventory(hold);
+    }
+
+    /**
+     * Release a hold before its TTL (user left the payment page).
+     */
+    public boolean release(String holdId, Long userId) {
+        Hold hold = holdId != null ? holds.get(holdId) : null;
+        if (hold == null || !Objects.equals(hold.userId, userId)) {
+            return false;
+        }
+        if (hold.state.compareAndSet(HoldState.ACTIVE, HoldState.RELEASED)) {
+            holds.remove(holdId, hold);
+            releaseInventory(hold);
+            return true;
+        }
+        return false;
+    }
+
+    private void register(Hold hold) {
+        holds.put(hold.id, hold);
+        expiryQueue.put(hold);
+    }
+
+    private void sweep() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Hold hold = expiryQueue.take();
+                if (hold.state.compareAndSet(HoldState.ACTIVE, HoldState.EXPIRED)) {
+                    holds.remove(hold.id, hold);
+                    releaseInventory(hold);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("Failed to expire booking hold: " + e.getMessage());
+            }
+        }
+    }
+
+    private void releaseInventory(Hold hold) {
+        if (hold.type == BookingType.MOVIE) {
+            seatInventoryService.release(hold.showId, hold.seats);
+        } else {
+            zoneInventoryService.releaseHold(hold.eventId, hold.eventDateId, hold.zones);
+        }
+    }
+
+    enum HoldState {
+        ACTIVE,
+        CONSUMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    /**
+     * A single hold. Ordered in the DelayQueue by its deadline.
+     */
+    @Getter
+    public static class Hold implements Delayed {
+
+        private final String id = UUID.randomUUID().toString();
+        private final BookingType type;
+        private final Long userId;
+        private final Long showId;
+        private final List<String> seats;
+        private final Long eventId;
+        private final String eventDateId;
+        private final Map<String, Map<String, Integer>> zones;
+        private final LocalDateTime expiresAt;
+        @Getter(AccessLevel.NONE)
+        private final long deadlineNanos;
+        @Getter(AccessLevel.NONE)
+        private final AtomicReference<HoldState> state = new AtomicReference<>(HoldState.ACTIVE);
+
+        Hold(BookingType type, Long userId, Long showId, List<String> seats, Long eventId, String eventDateId,
+                Map<String, Map<String, Integer>> zones, long ttlSeconds) {
+            this.type = type;
+            this.userId = userId;
+            this.showId = showId;
+            this.seats = seats;
+            this.eventId = eventId;
+            this.eventDateId = eventDateId;
+            this.zones = zones;
+            this.expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds);
+            this.deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Hold h) {
+                return Long.compare(deadlineNanos, h.deadlineNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * Raised when a hold can no longer be turned into a booking.
+     */
+    public static class HoldUnavailableException extends RuntimeException {
+
+        public HoldUnavailableException(String holdId) {
+            super("Hold not found or expired: " + holdId);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingSeatEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.entity.DataMigrationEntity;
+import com.excelr.entity.Status;
+import com.excelr.repository.BookingRepository;
+import com.excelr.repository.BookingSeatRepository;
+import com.excelr.repository.BookingZonePassRepository;
+import com.excelr.repository.DataMigrationRepository;
+import com.excelr.service.impl.BookingServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Start-up migration that fills booking_seats / booking_zone_passes from the
+ * bookingDetails JSON of bookings written before those tables existed, and
+ * the event_date column of event bookings (taken from the event's
+ * eventConfig) so "my bookings" can sort and filter them by day.
+ *
+ * The seat bitmaps and zone counters are seeded from those tables only, so
+ * this must finish before any inventory is served: it runs once all beans are
+ * created, before the web server accepts requests and before scheduled jobs
+ * start, and a failure stops the start-up.
+ *
+ * Every booking it visits is flagged as normalized (new bookings are flagged
+ * when they are saved), so an interrupted run resumes where it stopped and a
+ * booking whose seats were all skipped is not picked up again. Seats that are
+ * already taken on the show (double bookings from before seat claiming
+ * existed) are skipped and logged instead of failing on the unique key. The
+ * completed run is recorded in data_migrations, so later start-ups skip it.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingNormalizationBackfill implements SmartInitializingSingleton {
+
+    private static final String MIGRATION = "booking-normalization";
+    private static final int PAGE_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final BookingZonePassRepository bookingZonePassRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final BookingServiceImpl bookingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (dataMigrationRepository.existsById(MIGRATION)) {
+            return;
+        }
+        long afterId = 0L;
+        int visited = 0;
+        while (true) {
+            long from = afterId;
+            // One transaction per page: rows and flags of a page commit together
+            List<BookingEntity> page = transactionTemplate.execute(status -> {
+                List<BookingEntity> bookings = bookingRepository.findUnnormalizedBookings(from,
+                        PageRequest.of(0, PAGE_SIZE));
+                if (!bookings.isEmpty()) {
+                    bookings.forEach(this::backfill);
+                    // Write the event dates first, so the commit has nothing left to overwrite the flags with
+                    bookingRepository.flush();
+                    bookingRepository.markNormalized(bookings.stream().map(BookingEntity::getId).toList());
+                }
+                return bookings;
+            });
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            visited += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        dataMigrationRepository.save(new DataMigrationEntity(MIGRATION, LocalDateTime.now()));
+        System.out.println("Booking backfill: migrated " + visited + " bookings");
+    }
+
+    private void backfill(BookingEntity booking) {
+        if (booking.getType() == BookingType.EVENT && booking.getEventDate() == null) {
+            // Written back when the page commits; stays null if the date is gone from eventConfig
+            booking.setEventDate(bookingService.eventDateOf(booking.getEvent(), booking.getEventDateId()));
+        }
+        // Cancelled bookings hold no inventory; rows of bookings saved by this version already exist
+        if (booking.getStatus() != Status.CONFIRMED || bookingSeatRepository.existsByBookingId(booking.getId())
+                || bookingZonePassRepository.existsByBookingId(booking.getId())) {
+            return;
+        }
+        List<BookingSeatEntity> seats = bookingService.seatRowsOf(booking);
+        if (!seats.isEmpty()) {
+            Set<String> taken = new HashSet<>(bookingSeatRepository.findSeatLabelsByShowId(seats.get(0).getShowId()));
+            for (BookingSeatEntity seat : seats) {
+                if (!taken.add(seat.getSeatLabel())) {
+                    System.err.println("Booking backfill: seat " + seat.getSeatLabel() + " of booking "
+                            + booking.getBookingCode() + " is already taken on show " + seat.getShowId()
+                            + ", skipped");
+                    continue;
+                }
+                bookingSeatRepository.save(seat);
+            }
+        }
+        bookingZonePassRepository.saveAll(bookingService.zonePassRowsOf(booking));
+    }
+}
@@ -0,0 +1,102 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.DataMigrationEntity;
+import com.excelr.entity.Status;
+import com.excelr.repository.BookingRepository;
+import com.excelr.repository.BookingRollupRepository;
+import com.excelr.repository.DataMigrationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Start-up migration that rebuilds booking_rollups from all confirmed
+ * bookings.
+ *
+ * Runs once all beans are created, before the web server accepts requests,
+ * so nothing books while the table is replaced and dashboards never see
+ * partial totals; with several instances, deploy it with the others stopped.
+ * The completed run is recorded in data_migrations and later start-ups skip
+ * it; set booking.rollup.rebuild.force=true for one start-up to recompute
+ * after fixing bookings by hand. Bookings are read in keyset pages and summed
+ * per rollup key in memory, so memory grows with the number of
+ * shows/events/owners, not bookings.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingRollupRebuild implements SmartInitializingSingleton {
+
+    private static final String MIGRATION = "booking-rollups";
+    private static final int PAGE_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final BookingRollupRepository bookingRollupRepository;
+    private final BookingRollupService bookingRollupService;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.rollup.rebuild.force:false}")
+    private boolean force;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!force && dataMigrationRepository.existsById(MIGRATION)) {
+            return;
+        }
+        Map<BookingRollupService.Key, Sum> sums = new HashMap<>();
+        long afterId = 0L;
+        int counted = 0;
+        while (true) {
+            long from = afterId;
+            // Lazy associations are only touched inside the page's transaction
+            List<BookingEntity> page = transactionTemplate.execute(status -> {
+                List<BookingEntity> bookings = bookingRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        Status.CONFIRMED, from, PageRequest.of(0, PAGE_SIZE));
+                for (BookingEntity booking : bookings) {
+                    add(sums, booking);
+                }
+                return bookings;
+            });
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            counted += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRollupRepository.deleteAllRollups();
+            sums.forEach((key, sum) -> bookingRollupRepository.addToRollup(key.scope().name(), key.key(),
+                    sum.bookings, sum.seats, sum.revenue));
+            dataMigrationRepository.save(new DataMigrationEntity(MIGRATION, LocalDateTime.now()));
+        });
+        System.out.println("Booking rollup rebuild: " + sums.size() + " rollup rows from " + counted + " bookings");
+    }
+
+    private void add(Map<BookingRollupService.Key, Sum> sums, BookingEntity booking) {
+        int seats = bookingRollupService.seatCountOf(booking);
+        BigDecimal revenue = booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO;
+        for (BookingRollupService.Key key : bookingRollupService.keysOf(booking)) {
+            Sum sum = sums.computeIfAbsent(key, k -> new Sum());
+            sum.bookings++;
+            sum.seats += seats;
+            sum.revenue = sum.revenue.add(revenue);
+        }
+    }
+
+    private static final class Sum {
+        private long bookings;
+        private long seats;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
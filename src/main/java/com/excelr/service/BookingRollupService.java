@@ -0,0 +1,180 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingRollupEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.entity.RollupScope;
+import com.excelr.entity.UserEntity;
+import com.excelr.repository.BookingRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-aggregated booking totals (bookings, seats, revenue) per show, event
+ * and owner.
+ *
+ * BookingServiceImpl calls {@link #recordBooked} / {@link #recordCancelled}
+ * inside the transaction that saves the booking, so a rollup row moves
+ * exactly when the booking commits. Each call is two single-row upserts,
+ * always in the same scope order so concurrent bookings cannot deadlock.
+ * The owner total is split over OWNER_SHARDS rows picked by booking id:
+ * every booking of an owner would otherwise queue on one row lock until its
+ * transaction commits. Dashboards read one row per show or event (summed per
+ * movie and venue in the DB) and the shards of one owner instead of scanning
+ * bookings.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingRollupService {
+
+    static final int OWNER_SHARDS = 8;
+
+    private final BookingRollupRepository bookingRollupRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final ZoneInventoryService zoneInventoryService;
+
+    /**
+     * Add a newly confirmed booking. Must run inside the booking's transaction.
+     */
+    public void recordBooked(BookingEntity booking) {
+        apply(booking, 1);
+    }
+
+    /**
+     * Remove a cancelled booking. Must run inside the cancellation's transaction.
+     */
+    public void recordCancelled(BookingEntity booking) {
+        apply(booking, -1);
+    }
+
+    /**
+     * Totals for many keys of one scope in a single query; keys without a row
+     * are simply absent from the result.
+     */
+    public Map<String, Totals> getTotals(RollupScope scope, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Totals> result = new HashMap<>();
+        for (BookingRollupEntity row : bookingRollupRepository.findByScopeAndScopeKeyIn(scope, keys)) {
+            result.put(row.getScopeKey(), Totals.of(row));
+        }
+        return result;
+    }
+
+    /**
+     * An owner's totals across all movies and events: the sum of its shards.
+     */
+    public Totals getOwnerTotals(Long ownerId) {
+        List<String> keys = new ArrayList<>(OWNER_SHARDS);
+        for (int shard = 0; shard < OWNER_SHARDS; shard++) {
+            keys.add(ownerId + ":" + shard);
+        }
+        Totals total = Totals.EMPTY;
+        for (Totals shard : getTotals(RollupScope.OWNER, keys).values()) {
+            total = new Totals(total.bookings() + shard.bookings(), total.seats() + shard.seats(),
+                    total.revenue().add(shard.revenue()));
+        }
+        return total;
+    }
+
+    /**
+     * Totals of a movie's shows per venue (ownerId null = all owners).
+     */
+    public List<BookingRollupRepository.VenueTotals> getMovieTotalsByVenue(Long movieId, Long ownerId) {
+        return bookingRollupRepository.sumMovieRollupsByVenue(movieId, ownerId, RollupScope.SHOW);
+    }
+
+    /**
+     * Totals of an event under its venue name; empty if it has no bookings
+     * or belongs to another owner.
+     */
+    public List<BookingRollupRepository.VenueTotals> getEventTotalsByVenue(Long eventId, Long ownerId) {
+        return bookingRollupRepository.findEventRollupByVenue(eventId, ownerId, RollupScope.EVENT);
+    }
+
+    /**
+     * Confirmed bookings and revenue per TMDB movie id across an owner's shows.
+     */
+    public Map<Long, BookingRollupRepository.MovieTotals> getMovieTotalsForOwner(Long ownerId) {
+        Map<Long, BookingRollupRepository.MovieTotals> result = new HashMap<>();
+        for (BookingRollupRepository.MovieTotals row : bookingRollupRepository
+                .sumShowRollupsByMovieForOwner(ownerId, RollupScope.SHOW)) {
+            result.put(row.getTmdbMovieId(), row);
+        }
+        return result;
+    }
+
+    /**
+     * The rollup rows a booking counts towards, in a fixed scope order.
+     */
+    public List<Key> keysOf(BookingEntity booking) {
+        List<Key> keys = new ArrayList<>(2);
+        UserEntity owner = null;
+        if (booking.getType() == BookingType.MOVIE && booking.getShow() != null) {
+            keys.add(new Key(RollupScope.SHOW, String.valueOf(booking.getShow().getId())));
+            if (booking.getShow().getVenue() != null) {
+                owner = booking.getShow().getVenue().getOwner();
+            }
+        } else if (booking.getType() == BookingType.EVENT && booking.getEvent() != null) {
+            keys.add(new Key(RollupScope.EVENT, String.valueOf(booking.getEvent().getId())));
+            owner = booking.getEvent().getOwner();
+        }
+        if (owner != null) {
+            keys.add(new Key(RollupScope.OWNER, owner.getId() + ":" + Math.floorMod(booking.getId(), OWNER_SHARDS)));
+        }
+        return keys;
+    }
+
+    /**
+     * Seats of a movie booking or passes (adults + children) of an event booking.
+     */
+    public int seatCountOf(BookingEntity booking) {
+        if (booking.getType() == BookingType.MOVIE) {
+            return seatInventoryService.seatsOf(booking).size();
+        }
+        int passes = 0;
+        for (Map<String, Integer> counts : zoneInventoryService.zonesOf(booking).values()) {
+            passes += ZoneInventoryService.passesOf(counts);
+        }
+        return passes;
+    }
+
+    private void apply(BookingEntity booking, int sign) {
+        List<Key> keys = keysOf(booking);
+        if (keys.isEmpty()) {
+            return;
+        }
+        long seats = (long) sign * seatCountOf(booking);
+        BigDecimal revenue = booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO;
+        if (sign < 0) {
+            revenue = revenue.negate();
+        }
+        for (Key key : keys) {
+            bookingRollupRepository.addToRollup(key.scope().name(), key.key(), sign, seats, revenue);
+        }
+    }
+
+    public record Key(RollupScope scope, String key) {
+    }
+
+    /**
+     * Bookings, seats and revenue of one rollup row.
+     */
+    public record Totals(long bookings, long seats, BigDecimal revenue) {
+
+        public static final Totals EMPTY = new Totals(0, 0, BigDecimal.ZERO);
+
+        static Totals of(BookingRollupEntity row) {
+            return new Totals(row.getBookings(), row.getSeats(),
+                    row.getRevenue() != null ? row.getRevenue() : BigDecimal.ZERO);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.excelr.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the in-process Caffeine caches, so their hit/miss/eviction
+ * counters can be read in one place (GET /api/analytics/caches).
+ */
+@Component
+public class CacheMetrics {
+
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Track a cache under a name; the cache must be built with recordStats().
+     */
+    public <K, V> Cache<K, V> register(String name, Cache<K, V> cache) {
+        caches.put(name, cache);
+        return cache;
+    }
+
+    /**
+     * Current counters of every registered cache, sorted by name.
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        caches.forEach((name, cache) -> {
+            CacheStats stats = cache.stats();
+            result.put(name, new Snapshot(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                    stats.hitRate(), stats.evictionCount()));
+        });
+        return result;
+    }
+
+    public record Snapshot(long size, long hits, long misses, double hitRate, long evictions) {
+    }
+}
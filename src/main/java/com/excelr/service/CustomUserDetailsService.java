@@ -2,27 +2,83 @@ package com.excelr.service;
 
 import com.excelr.entity.UserEntity;
 import com.excelr.repository.UserRepository;
+import com.excelr.security.AuthUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 
+/**
+ * Loads users for Spring Security.
+ *
+ * Login goes through {@link #loadUserByUsername} and always reads the users
+ * table (it needs the password hash). Requests authenticated by JWT use
+ * {@link #loadPrincipal}, which is served from a bounded, TTL-based cache of
+ * password-less principals, so a typical request does no user query at all.
+ * Entries are evicted when the user is updated.
+ */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${auth.principal-cache.max-size:10000}")
+    private long principalCacheMaxSize;
+
+    @Value("${auth.principal-cache.ttl-seconds:300}")
+    private long principalCacheTtlSeconds;
+
+    private Cache<String, AuthUser> principals;
+
+    @PostConstruct
+    void initCache() {
+        principals = cacheMetrics.register("auth.principals", Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(principalCacheTtlSeconds))
+                .recordStats()
+                .build());
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByEmail(email)
+        return toPrincipal(findUser(email), true);
+    }
+
+    /**
+     * Principal for an already authenticated caller (no password inside).
+     *
+     * @throws UsernameNotFoundException if the user no longer exists
+     */
+    public AuthUser loadPrincipal(String email) {
+        return principals.get(email, key -> toPrincipal(findUser(key), false));
+    }
+
+    /**
+     * Drop the cached principal of a user after their profile or role changed.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            principals.invalidate(email);
+        }
+    }
+
+    private UserEntity findUser(String email) {
+        return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
 
+    private AuthUser toPrincipal(UserEntity user, boolean withPassword) {
         // Assuming role is a String like "USER" or "OWNER"
         // Spring Security expects roles to start with "ROLE_" usually, or we can just
         // use Authorities
@@ -31,9 +87,10 @@ public class CustomUserDetailsService implements UserDetailsService {
             roleName = "ROLE_" + roleName;
         }
 
-        return new User(
+        return new AuthUser(
+                user.getId(),
                 user.getEmail(),
-                user.getPassword(),
+                withPassword ? user.getPassword() : "",
                 Collections.singletonList(new SimpleGrantedAuthority(roleName)));
     }
 }
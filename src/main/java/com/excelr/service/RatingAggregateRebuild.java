@@ -0,0 +1,59 @@
+package com.excelr.service;
+
+import com.excelr.entity.DataMigrationEntity;
+import com.excelr.repository.DataMigrationRepository;
+import com.excelr.repository.RatingAggregateRepository;
+import com.excelr.repository.RatingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Start-up migration that rebuilds rating_aggregates from the ratings table.
+ *
+ * Runs once all beans are created, before the web server accepts requests,
+ * so no rating is written while the table is replaced; with several
+ * instances, deploy it with the others stopped. The totals are computed with
+ * one GROUP BY and the table is replaced in one transaction together with the
+ * data_migrations record, so later start-ups skip it. Set
+ * rating.aggregates.rebuild.force=true for one start-up to recompute after
+ * editing ratings by hand.
+ */
+@Component
+@RequiredArgsConstructor
+public class RatingAggregateRebuild implements SmartInitializingSingleton {
+
+    private static final String MIGRATION = "rating-aggregates";
+
+    private final RatingRepository ratingRepository;
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rating.aggregates.rebuild.force:false}")
+    private boolean force;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!force && dataMigrationRepository.existsById(MIGRATION)) {
+            return;
+        }
+        Integer items = transactionTemplate.execute(status -> {
+            List<RatingRepository.ItemRatingTotals> totals = ratingRepository.sumRatingsByItem();
+            ratingAggregateRepository.deleteAllAggregates();
+            for (RatingRepository.ItemRatingTotals item : totals) {
+                ratingAggregateRepository.addToAggregate(item.getItemType(), item.getItemId(),
+                        item.getRatingSum(), item.getRatingCount(), item.getStars1(), item.getStars2(),
+                        item.getStars3(), item.getStars4(), item.getStars5());
+            }
+            dataMigrationRepository.save(new DataMigrationEntity(MIGRATION, LocalDateTime.now()));
+            return totals.size();
+        });
+        System.out.println("Rating aggregate rebuild: " + items + " items");
+    }
+}
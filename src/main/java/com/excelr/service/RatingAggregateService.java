@@ -0,0 +1,209 @@
+package com.excelr.service;
+
+import com.excelr.controller.RatingController;
+import com.excelr.entity.RatingAggregateEntity;
+import com.excelr.entity.RatingEntity;
+import com.excelr.entity.UserEntity;
+import com.excelr.repository.RatingAggregateRepository;
+import com.excelr.repository.RatingRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ratings writes plus the per-item totals kept in rating_aggregates.
+ *
+ * Every insert, star change and delete applies its delta (sum, count and the
+ * per-star histogram) to the item's aggregate row in the same transaction,
+ * so a rating summary is one unique-key lookup instead of AVG/COUNT over the
+ * ratings table. Summaries are also kept in a small in-process cache that is
+ * evicted on RatingChanged.
+ *
+ * Cache loads run on the calling thread and are shared: a request for an item
+ * that another request is already loading waits for that load instead of
+ * querying again, and a batch lookup reads all of its misses with one query.
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingAggregateService {
+
+    private final RatingRepository ratingRepository;
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${rating.summary-cache.max-size:10000}")
+    private long summaryCacheMaxSize;
+
+    @Value("${rating.summary-cache.ttl-seconds:600}")
+    private long summaryCacheTtlSeconds;
+
+    private AsyncCache<ItemKey, Summary> summaries;
+
+    @PostConstruct
+    void initCache() {
+        summaries = Caffeine.newBuilder()
+                .maximumSize(summaryCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(summaryCacheTtlSeconds))
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        cacheMetrics.register("ratings.summary", summaries.synchronous());
+    }
+
+    /**
+     * Create the user's rating of an item, or change it if they already rated
+     * it. The existing row is locked so two concurrent edits can't both apply
+     * a delta from the same old value.
+     */
+    @Transactional
+    public RatingEntity rate(UserEntity user, String itemType, String itemId, int stars, String review) {
+        RatingEntity rating = ratingRepository.findForUpdate(user.getId(), itemId, itemType).orElse(null);
+        Integer previous = null;
+        if (rating != null) {
+            previous = rating.getRating();
+            rating.setRating(stars);
+            rating.setReview(review);
+        } else {
+            rating = RatingEntity.builder()
+                    .user(user)
+                    .itemId(itemId)
+                    .itemType(itemType)
+                    .rating(stars)
+                    .review(review)
+                    .build();
+        }
+        RatingEntity saved = ratingRepository.save(rating);
+        applyDelta(itemType, itemId, previous, stars);
+        return saved;
+    }
+
+    /**
+     * Delete a rating and take it out of its item's totals. The row is
+     * re-read under the same lock rate() takes, so the stars removed are the
+     * ones stored now, not the ones the caller loaded before a concurrent edit.
+     *
+     * @return false if the rating was already deleted
+     */
+    @Transactional
+    public boolean delete(RatingEntity rating) {
+        RatingEntity locked = ratingRepository.findForUpdate(rating.getUser().getId(), rating.getItemId(),
+                rating.getItemType()).orElse(null);
+        if (locked == null || !locked.getId().equals(rating.getId())
+                || ratingRepository.deleteRowById(locked.getId()) == 0) {
+            return false;
+        }
+        applyDelta(locked.getItemType(), locked.getItemId(), locked.getRating(), null);
+        return true;
+    }
+
+    public Summary getSummary(String itemType, String itemId) {
+        return summaries.get(new ItemKey(itemType, itemId), key -> ratingAggregateRepository
+                .findByItemTypeAndItemId(key.itemType(), key.itemId())
+                .map(Summary::of)
+                .orElse(Summary.EMPTY)).join();
+    }
+
+    /**
+     * Summaries of many items at once. Items not in the cache are read with
+     * a single IN query; items without ratings map to Summary.EMPTY.
+     */
+    public Map<ItemKey, Summary> getSummaries(Collection<ItemKey> keys) {
+        return summaries.getAll(keys, this::loadSummaries).join();
+    }
+
+    /**
+     * Runs before PublicResponseCacheFilter evicts the rating responses, so a
+     * response rebuilt after that eviction never reads the old summary.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRatingChanged(RatingController.RatingChanged change) {
+        summaries.synchronous().invalidate(new ItemKey(change.itemType(), change.itemId()));
+    }
+
+    private Map<ItemKey, Summary> loadSummaries(Set<? extends ItemKey> keys) {
+        Set<String> itemTypes = keys.stream().map(ItemKey::itemType).collect(Collectors.toSet());
+        Set<String> itemIds = keys.stream().map(ItemKey::itemId).collect(Collectors.toSet());
+        Map<ItemKey, Summary> loaded = new HashMap<>();
+        // The IN lists cross types and ids, so rows for pairs nobody asked for are dropped
+        for (RatingAggregateEntity row : ratingAggregateRepository.findByItemTypeInAndItemIdIn(itemTypes, itemIds)) {
+            ItemKey key = new ItemKey(row.getItemType(), row.getItemId());
+            if (keys.contains(key)) {
+                loaded.put(key, Summary.of(row));
+            }
+        }
+        for (ItemKey key : keys) {
+            loaded.putIfAbsent(key, Summary.EMPTY);
+        }
+        return loaded;
+    }
+
+    // Move one rating from `from` stars to `to` stars; null means "no rating"
+    private void applyDelta(String itemType, String itemId, Integer from, Integer to) {
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        long[] stars = new long[6];
+        long sum = 0;
+        long count = 0;
+        if (from != null) {
+            stars[from]--;
+            sum -= from;
+            count--;
+        }
+        if (to != null) {
+            stars[to]++;
+            sum += to;
+            count++;
+        }
+        ratingAggregateRepository.addToAggregate(itemType, itemId, sum, count,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+    }
+
+    public record ItemKey(String itemType, String itemId) {
+    }
+
+    /**
+     * Star sum, rating count and per-star counts of one item.
+     */
+    public record Summary(long sum, long count, Map<Integer, Long> stars) {
+
+        public static final Summary EMPTY = new Summary(0, 0, histogram(0, 0, 0, 0, 0));
+
+        /**
+         * Average stars rounded to one decimal; 0.0 when there are no ratings.
+         */
+        public double averageRating() {
+            return count > 0 ? Math.round(sum * 10.0 / count) / 10.0 : 0.0;
+        }
+
+        static Summary of(RatingAggregateEntity row) {
+            return new Summary(row.getRatingSum(), row.getRatingCount(), histogram(row.getStars1(),
+                    row.getStars2(), row.getStars3(), row.getStars4(), row.getStars5()));
+        }
+
+        static Map<Integer, Long> histogram(long... counts) {
+            Map<Integer, Long> stars = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                stars.put(i + 1, counts[i]);
+            }
+            return Collections.unmodifiableMap(stars);
+        }
+    }
+}
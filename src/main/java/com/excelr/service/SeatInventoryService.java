@@ -0,0 +1,342 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.repository.BookingSeatRepository;
+import com.excelr.repository.ShowRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory seat inventory for movie shows.
+ *
+ * Each show gets a compact bitmap with one bit per seat: row letter A-Z maps to
+ * a 64-bit word and the seat number (1-64) maps to a bit inside that word, so
+ * "A1" is bit 0 of word 0 and "C12" is bit 11 of word 2. Labels outside that
+ * grid are kept in a small overflow set so nothing is lost.
+ *
+ * A show's bitmap is seeded from the booking_seats table (one indexed query;
+ * older bookings are migrated into it by BookingNormalizationBackfill before
+ * the app takes traffic) the first time it is touched and is then kept
+ * current by BookingServiceImpl on create/cancel, so blocked-seat reads need
+ * no DB round-trip and no JSON parsing.
+ *
+ * Claims are all-or-nothing: the check and the set for a whole seat list run
+ * under a lock picked from a fixed stripe by show id, so two buyers can never
+ * both get "A5" while bookings for unrelated shows proceed in parallel. Reads
+ * and releases are lock-free.
+ *
+ * Every change is published as a {@link SeatsChanged} application event so
+ * live seat-map streams can push deltas without querying anything.
+ *
+ * Bitmaps of shows whose date has passed are dropped by a periodic sweep, so
+ * memory is bounded by the shows that can still be booked. A later read of a
+ * past show simply seeds it again. Ids that are not in the shows table never
+ * get a bitmap.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatInventoryService {
+
+    static final int MAX_ROWS = 26;   // A-Z
+    static final int MAX_COLS = 64;   // one long per row
+    private static final int LOCK_STRIPES = 64;
+    private static final int SWEEP_BATCH = 1000;
+
+    private final BookingSeatRepository bookingSeatRepository;
+    private final ShowRepository showRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, SeatMap> seatMaps = new ConcurrentHashMap<>();
+    private final ReentrantLock[] claimLocks = new ReentrantLock[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            claimLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Blocked seats for a show in row-major order (A1, A2, ..., B1, ...).
+     */
+    public List<String> getBlockedSeats(Long showId) {
+        SeatMap map = seatMap(showId);
+        return map != null ? map.toLabels() : List.of();
+    }
+
+    /**
+     * Atomically claim every seat in the list for a show.
+     *
+     * @return the seats that are already taken (or requested twice); empty when
+     *         the claim succeeded. Nothing is claimed unless all seats are free.
+     */
+    public List<String> tryClaim(Long showId, List<String> seats) {
+        SeatMap map = seatMap(showId);
+        if (map == null) {
+            throw new IllegalArgumentException("Show not found with id: " + showId);
+        }
+        ReentrantLock lock = claimLocks[Math.floorMod(showId.hashCode(), LOCK_STRIPES)];
+        List<String> conflicts = new ArrayList<>();
+        lock.lock();
+        try {
+            Set<String> requested = new HashSet<>();
+            for (String seat : seats) {
+                if (seat == null || !requested.add(seat.toUpperCase()) || map.isSet(seat)) {
+                    conflicts.add(seat);
+                }
+            }
+            if (conflicts.isEmpty()) {
+                for (String seat : seats) {
+                    map.set(seat);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (conflicts.isEmpty()) {
+            eventPublisher.publishEvent(new SeatsChanged(showId, List.copyOf(seats), List.of()));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Claim the seats of a movie booking before it is saved.
+     *
+     * @throws SeatsUnavailableException if any requested seat is already taken
+     */
+    public void claim(BookingEntity booking) {
+        if (!isMovieBooking(booking)) {
+            return;
+        }
+        List<String> conflicts = tryClaim(booking.getShow().getId(), seatsOf(booking));
+        if (!conflicts.isEmpty()) {
+            throw new SeatsUnavailableException(conflicts);
+        }
+    }
+
+    /**
+     * Free the seats of a cancelled movie booking.
+     */
+    public void release(BookingEntity booking) {
+        if (!isMovieBooking(booking)) {
+            return;
+        }
+        release(booking.getShow().getId(), seatsOf(booking));
+    }
+
+    public void release(Long showId, List<String> seats) {
+        SeatMap map = seatMaps.get(showId);
+        if (map == null) {
+            return; // never loaded, next read seeds from the DB
+        }
+        for (String seat : seats) {
+            map.clear(seat);
+        }
+        eventPublisher.publishEvent(new SeatsChanged(showId, List.of(),
+                seats.stream().filter(Objects::nonNull).toList()));
+    }
+
+    /**
+     * Drop the cached bitmap of a show (e.g. after the show was deleted).
+     */
+    public void evict(Long showId) {
+        seatMaps.remove(showId);
+    }
+
+    /**
+     * Drop the bitmaps of loaded shows dated before today. Only past shows are
+     * evicted: a bitmap is the only record of its show's held seats, so live
+     * shows must stay loaded.
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-map-sweep-ms:3600000}", initialDelayString = "${booking.seat-map-sweep-ms:3600000}")
+    public void evictPastShows() {
+        List<Long> loaded = new ArrayList<>(seatMaps.keySet());
+        LocalDate today = LocalDate.now();
+        int evicted = 0;
+        for (int from = 0; from < loaded.size(); from += SWEEP_BATCH) {
+            List<Long> batch = loaded.subList(from, Math.min(from + SWEEP_BATCH, loaded.size()));
+            for (Long showId : showRepository.findIdsDatedBefore(batch, today)) {
+                seatMaps.remove(showId);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            System.out.println("Seat maps: evicted " + evicted + " past shows, " + seatMaps.size() + " loaded");
+        }
+    }
+
+    /**
+     * Seat labels stored in a booking's bookingDetails JSON ({"seats": [...]}).
+     */
+    public List<String> seatsOf(BookingEntity booking) {
+        if (booking.getBookingDetails() == null) {
+            return Collections.emptyList();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> details = objectMapper.readValue(booking.getBookingDetails(), Map.class);
+            @SuppressWarnings("unchecked")
+            List<String> seats = (List<String>) details.get("seats");
+            return seats != null ? seats : Collections.emptyList();
+        } catch (Exception e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private boolean isMovieBooking(BookingEntity booking) {
+        return booking.getType() == BookingType.MOVIE && booking.getShow() != null
+                && booking.getShow().getId() != null;
+    }
+
+    /**
+     * Loaded bitmap of a show, seeded on first use; null for ids that are not
+     * in the shows table (virtual shows nobody booked yet, made-up ids), which
+     * are answered as empty without keeping anything in memory. The seed
+     * query runs outside the map's lock; if two threads seed the same show,
+     * the first one stored wins.
+     */
+    private SeatMap seatMap(Long showId) {
+        SeatMap map = seatMaps.get(showId);
+        if (map != null) {
+            return map;
+        }
+        if (!showRepository.existsById(showId)) {
+            return null;
+        }
+        SeatMap loaded = loadSeatMap(showId);
+        SeatMap raced = seatMaps.putIfAbsent(showId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    // One-time seed per show from the active rows in booking_seats
+    private SeatMap loadSeatMap(Long showId) {
+        SeatMap map = new SeatMap();
+        for (String seat : bookingSeatRepository.findSeatLabelsByShowId(showId)) {
+            map.set(seat);
+        }
+        return map;
+    }
+
+    /**
+     * Maps "A1".."Z64" to a bit index (row * 64 + col - 1); -1 if the label does
+     * not fit the grid.
+     */
+    static int indexOf(String label) {
+        if (label == null || label.length() < 2 || label.length() > 3) {
+            return -1;
+        }
+        char rowChar = Character.toUpperCase(label.charAt(0));
+        if (rowChar < 'A' || rowChar > 'Z') {
+            return -1;
+        }
+        int col = 0;
+        for (int i = 1; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            col = col * 10 + (c - '0');
+        }
+        if (col < 1 || col > MAX_COLS) {
+            return -1;
+        }
+        return (rowChar - 'A') * MAX_COLS + (col - 1);
+    }
+
+    static String labelOf(int index) {
+        return String.valueOf((char) ('A' + index / MAX_COLS)) + (index % MAX_COLS + 1);
+    }
+
+    /**
+     * Bitmap for a single show. Words are updated with atomic bit operations so
+     * concurrent bookings on different seats never lose each other's updates.
+     */
+    static final class SeatMap {
+
+        private final AtomicLongArray rows = new AtomicLongArray(MAX_ROWS);
+        private final Set<String> overflow = ConcurrentHashMap.newKeySet();
+
+        void set(String label) {
+            int index = indexOf(label);
+            if (index < 0) {
+                if (label != null) {
+                    overflow.add(label);
+                }
+                return;
+            }
+            long bit = 1L << (index % MAX_COLS);
+            rows.getAndAccumulate(index / MAX_COLS, bit, (word, b) -> word | b);
+        }
+
+        void clear(String label) {
+            int index = indexOf(label);
+            if (index < 0) {
+                if (label != null) {
+                    overflow.remove(label);
+                }
+                return;
+            }
+            long bit = 1L << (index % MAX_COLS);
+            rows.getAndAccumulate(index / MAX_COLS, bit, (word, b) -> word & ~b);
+        }
+
+        boolean isSet(String label) {
+            int index = indexOf(label);
+            if (index < 0) {
+                return overflow.contains(label);
+            }
+            return (rows.get(index / MAX_COLS) & (1L << (index % MAX_COLS))) != 0;
+        }
+
+        List<String> toLabels() {
+            List<String> labels = new ArrayList<>();
+            for (int row = 0; row < MAX_ROWS; row++) {
+                long word = rows.get(row);
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    labels.add(labelOf(row * MAX_COLS + bit));
+                    word &= word - 1;
+                }
+            }
+            labels.addAll(overflow);
+            return labels;
+        }
+    }
+
+    /**
+     * Seats of a show that just became taken (booked or held) or free again.
+     */
+    public record SeatsChanged(Long showId, List<String> taken, List<String> released) {
+    }
+
+    /**
+     * Raised when a claim hits seats that are already booked.
+     */
+    @Getter
+    public static class SeatsUnavailableException extends RuntimeException {
+
+        private final List<String> seats;
+
+        public SeatsUnavailableException(List<String> seats) {
+            super("Seats already booked: " + String.join(", ", seats));
+            this.seats = seats;
+        }
+    }
+}
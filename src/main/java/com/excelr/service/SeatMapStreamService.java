@@ -0,0 +1,184 @@
+package com.excelr.service;
+
+import com.excelr.service.impl.ShowServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent-events fan-out for live seat maps.
+ *
+ * Clients subscribe per show and first receive a "snapshot" event with all
+ * blocked seats, then "seats" events carrying {taken, released} deltas. The
+ * deltas come from the SeatsChanged application events published by
+ * SeatInventoryService, so one booking or cancellation is serialized once and
+ * written to every subscriber of that show with no per-subscriber DB work.
+ *
+ * Emitters are servlet async requests, so an idle subscriber holds a socket
+ * but no request thread. Fan-out runs on a small dedicated pool so booking
+ * threads never wait on slow clients. Deltas of one show are queued and
+ * drained by a single task at a time, so every subscriber sees them in the
+ * order they were published; different shows still go out in parallel.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatMapStreamService {
+
+    private final SeatInventoryService seatInventoryService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.seat-stream.timeout-ms:1800000}") // 30 minutes, EventSource reconnects after
+    private long streamTimeoutMs;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<Runnable>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "seat-stream-fanout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long showId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Set<SseEmitter> showSubscribers = subscribers.computeIfAbsent(showId, k -> ConcurrentHashMap.newKeySet());
+        showSubscribers.add(emitter);
+        Runnable remove = () -> unsubscribe(showId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("snapshot")
+                    .data(objectMapper.writeValueAsString(Map.of(
+                            "showId", showId,
+                            "blockedSeats", seatInventoryService.getBlockedSeats(showId))),
+                            MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            remove.run();
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount(Long showId) {
+        Set<SseEmitter> showSubscribers = subscribers.get(showId);
+        return showSubscribers != null ? showSubscribers.size() : 0;
+    }
+
+    @EventListener
+    public void onSeatsChanged(SeatInventoryService.SeatsChanged change) {
+        Set<SseEmitter> showSubscribers = subscribers.get(change.showId());
+        if (showSubscribers == null || showSubscribers.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(change); // serialized once for all subscribers
+        } catch (IOException e) {
+            return;
+        }
+        enqueue(change.showId(), () -> broadcast(change.showId(), showSubscribers, "seats", payload));
+    }
+
+    /**
+     * A virtual show a client subscribed to got a real id: move its
+     * subscribers over so they receive the deltas published for that id.
+     * Their completion callbacks still name the virtual id; the heartbeat
+     * drops them from the new set once they are closed.
+     */
+    @EventListener
+    public void onShowMaterialized(ShowServiceImpl.ShowMaterialized materialized) {
+        Set<SseEmitter> moved = subscribers.remove(materialized.virtualId());
+        if (moved != null) {
+            subscribers.computeIfAbsent(materialized.showId(), k -> ConcurrentHashMap.newKeySet()).addAll(moved);
+        }
+    }
+
+    /**
+     * Periodic comment line so proxies keep idle streams open and dead
+     * clients are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((showId, showSubscribers) -> {
+            for (SseEmitter emitter : showSubscribers) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(showId, emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queue a delivery behind the others of the same show. Only the call that
+     * finds no queue starts a drain task, so at most one runs per show.
+     */
+    private void enqueue(Long showId, Runnable delivery) {
+        boolean[] idle = {false};
+        pending.compute(showId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            queue.add(delivery);
+            return queue;
+        });
+        if (idle[0]) {
+            fanOut.execute(() -> drain(showId));
+        }
+    }
+
+    private void drain(Long showId) {
+        while (true) {
+            Runnable[] next = {null};
+            // The queue is dropped under the map lock once empty, so a later enqueue starts a new drain
+            pending.computeIfPresent(showId, (id, queue) -> {
+                next[0] = queue.poll();
+                return next[0] != null ? queue : null;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            next[0].run();
+        }
+    }
+
+    private void broadcast(Long showId, Set<SseEmitter> showSubscribers, String eventName, String payload) {
+        for (SseEmitter emitter : showSubscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(showId, emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(Long showId, SseEmitter emitter) {
+        subscribers.computeIfPresent(showId, (id, showSubscribers) -> {
+            showSubscribers.remove(emitter);
+            return showSubscribers.isEmpty() ? null : showSubscribers;
+        });
+    }
+}
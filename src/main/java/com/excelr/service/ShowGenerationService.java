@@ -0,0 +1,263 @@
+package com.excelr.service;
+
+import com.excelr.entity.MovieScheduleEntity;
+import com.excelr.entity.ShowEntity;
+import com.excelr.entity.Status;
+import com.excelr.entity.VenueEntity;
+import com.excelr.repository.MovieScheduleRepository;
+import com.excelr.repository.ShowBulkWriter;
+import com.excelr.service.impl.MovieScheduleServiceImpl;
+import com.excelr.service.impl.ShowServiceImpl;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Background, chunked show generation for movie schedules.
+ *
+ * Creating a schedule only starts a job for a rolling window (the next
+ * window-days days); the HTTP request returns the job id straight away and
+ * the progress can be polled. Shows are built as plain objects and written a
+ * week at a time through ShowBulkWriter, each chunk in its own transaction
+ * together with the schedule's generatedUntil marker, so nothing accumulates
+ * in a persistence context and an interrupted job resumes where it stopped.
+ *
+ * Dates beyond the window are filled lazily: a daily job rolls every
+ * schedule's window forward, and reading the shows of a venue for a later
+ * date generates the missing days on the spot. Reads only generate up to
+ * lazy-horizon-days ahead, so a public request cannot make the server write
+ * (and hold a schedule lock for) years of shows. Generation for one schedule
+ * is serialized by a lock picked from a fixed stripe, so the paths never
+ * write the same date twice.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShowGenerationService {
+
+    private static final int CHUNK_DAYS = 7;
+    private static final int LOCK_STRIPES = 64;
+
+    private final MovieScheduleRepository movieScheduleRepository;
+    private final MovieScheduleServiceImpl movieScheduleService;
+    private final ShowBulkWriter showBulkWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${schedule.generation.window-days:14}")
+    private int windowDays;
+
+    @Value("${schedule.generation.lazy-horizon-days:60}")
+    private int lazyHorizonDays;
+
+    @Value("${schedule.generation.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ReentrantLock[] scheduleLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ExecutorService workers = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "show-generation");
+        t.setDaemon(true);
+        return t;
+    });
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            scheduleLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Start generating the eager window of a freshly saved schedule (its
+     * generatedUntil must be the day before startDate).
+     */
+    public Job start(MovieScheduleEntity schedule) {
+        LocalDate until = windowEnd(schedule);
+        Job job = new Job(schedule.getId(),
+                movieScheduleService.countShows(schedule, schedule.getStartDate(), until), until);
+        jobs.put(job.id, job);
+        workers.execute(() -> run(job));
+        return job;
+    }
+
+    public Optional<Job> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Make sure every schedule of the venue has its shows generated up to the
+     * given date (lazy fill beyond the eager window). Dates past the lazy
+     * horizon are not generated: the read returns the shows that exist.
+     */
+    public void ensureGeneratedThrough(VenueEntity venue, LocalDate date) {
+        if (date.isAfter(LocalDate.now().plusDays(lazyHorizonDays - 1L))) {
+            return;
+        }
+        for (MovieScheduleEntity schedule : movieScheduleRepository.findPendingForVenue(venue, date, Status.ACTIVE)) {
+            generateThrough(schedule.getId(), date, null);
+        }
+    }
+
+    /**
+     * Roll every schedule's window forward so the next window-days days
+     * always exist.
+     */
+    @Scheduled(cron = "${schedule.generation.roll-cron:0 15 0 * * *}")
+    public void rollWindows() {
+        LocalDate horizon = LocalDate.now().plusDays(windowDays - 1L);
+        for (MovieScheduleEntity schedule : movieScheduleRepository.findPendingBefore(horizon, Status.ACTIVE)) {
+            try {
+                generateThrough(schedule.getId(), horizon, null);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to extend shows of schedule " + schedule.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run an action while no generation can run for the given schedules, e.g.
+     * deleting them: a job already writing finishes first, and a later one
+     * re-reads the schedule and stops once it is gone.
+     */
+    public <T> T withSchedulesLocked(Collection<Long> scheduleIds, Supplier<T> action) {
+        // Stripes are taken in index order; generation only ever holds one at a time
+        List<ReentrantLock> locks = scheduleIds.stream()
+                .map(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .map(index -> scheduleLocks[index])
+                .toList();
+        locks.forEach(ReentrantLock::lock);
+        try {
+            return action.get();
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void pruneJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job) {
+        try {
+            generateThrough(job.scheduleId, job.generateUntil, job);
+            job.status = JobStatus.DONE;
+        } catch (RuntimeException e) {
+            job.error = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Generate the schedule's missing days up to target (capped at its end
+     * date), one chunk per transaction.
+     *
+     * @return number of shows written
+     */
+    private int generateThrough(Long scheduleId, LocalDate target, Job job) {
+        ReentrantLock lock = scheduleLocks[stripeIndex(scheduleId)];
+        lock.lock();
+        try {
+            // Re-read under the lock: another path may have generated these days already
+            MovieScheduleEntity schedule = movieScheduleRepository.findById(scheduleId).orElse(null);
+            if (schedule == null || schedule.getGeneratedUntil() == null) {
+                return 0;
+            }
+            LocalDate end = target.isBefore(schedule.getEndDate()) ? target : schedule.getEndDate();
+            LocalDate from = schedule.getGeneratedUntil().plusDays(1);
+            int written = 0;
+            while (!from.isAfter(end)) {
+                LocalDate chunkEnd = from.plusDays(CHUNK_DAYS - 1L);
+                LocalDate through = chunkEnd.isBefore(end) ? chunkEnd : end;
+                List<ShowEntity> shows = movieScheduleService.buildShows(schedule, from, through);
+                transactionTemplate.executeWithoutResult(status -> {
+                    showBulkWriter.insertAll(shows);
+                    movieScheduleRepository.updateGeneratedUntil(scheduleId, through);
+                });
+                eventPublisher.publishEvent(new ShowServiceImpl.ShowsChanged(schedule.getVenue().getId()));
+                written += shows.size();
+                if (job != null) {
+                    job.generatedShows.addAndGet(shows.size());
+                }
+                from = through.plusDays(1);
+            }
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeIndex(Long scheduleId) {
+        return Math.floorMod(scheduleId.hashCode(), LOCK_STRIPES);
+    }
+
+    private LocalDate windowEnd(MovieScheduleEntity schedule) {
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = schedule.getStartDate().isAfter(today) ? schedule.getStartDate() : today;
+        LocalDate end = windowStart.plusDays(windowDays - 1L);
+        return end.isBefore(schedule.getEndDate()) ? end : schedule.getEndDate();
+    }
+
+    public enum JobStatus {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    /**
+     * Progress of one generation job.
+     */
+    @Getter
+    public static class Job {
+
+        private final String id = UUID.randomUUID().toString();
+        private final Long scheduleId;
+        private final int totalShows;
+        private final LocalDate generateUntil;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger generatedShows = new AtomicInteger();
+        private volatile JobStatus status = JobStatus.RUNNING;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        Job(Long scheduleId, int totalShows, LocalDate generateUntil) {
+            this.scheduleId = scheduleId;
+            this.totalShows = totalShows;
+            this.generateUntil = generateUntil;
+        }
+
+        public int getGeneratedShows() {
+            return generatedShows.get();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.excelr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent-events push channel for event zone availability.
+ *
+ * Clients subscribe per (eventId, eventDateId) and first receive a "snapshot"
+ * event with every zone, then "zones" events holding only the zones whose
+ * numbers changed. ZoneInventoryService publishes a ZonesChanged event on
+ * every counter move; that only marks the date dirty. A flush running
+ * max-updates-per-second times a second reads the counters of the dirty dates
+ * once and broadcasts the diff, so a burst of sales collapses into at most N
+ * messages per second per stream.
+ *
+ * Each message carries absolute numbers, so the messages of one date must not
+ * overtake each other: they are queued per date and drained by a single task
+ * at a time on the fan-out pool.
+ */
+@Service
+@RequiredArgsConstructor
+public class ZoneAvailabilityStreamService {
+
+    private final ZoneInventoryService zoneInventoryService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.zone-stream.timeout-ms:1800000}") // 30 minutes, EventSource reconnects after
+    private long streamTimeoutMs;
+
+    @Value("${booking.zone-stream.max-updates-per-second:4}")
+    private int maxUpdatesPerSecond;
+
+    private final Map<DateKey, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<DateKey, Map<String, ZoneUpdate>> lastSent = new ConcurrentHashMap<>();
+    private final Set<DateKey> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<DateKey, Queue<Runnable>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "zone-stream-fanout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * The flush period is 1000 / max-updates-per-second ms, which is only a
+     * valid rate between 1 and 1000.
+     */
+    @PostConstruct
+    void checkRate() {
+        if (maxUpdatesPerSecond < 1 || maxUpdatesPerSecond > 1000) {
+            throw new IllegalStateException(
+                    "booking.zone-stream.max-updates-per-second must be between 1 and 1000, got " + maxUpdatesPerSecond);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long eventId, String eventDateId) {
+        DateKey key = new DateKey(eventId, eventDateId);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Runnable remove = () -> unsubscribe(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Registered before the snapshot is read, so a sale in between marks the date dirty;
+        // the explicit mark makes the next flush re-read it either way
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        dirty.add(key);
+
+        Map<String, ZoneUpdate> snapshot;
+        try {
+            snapshot = currentZones(key);
+        } catch (RuntimeException e) {
+            remove.run(); // e.g. an unknown event date
+            throw e;
+        }
+        // Diffs are taken against the last broadcast, which is never newer than this snapshot
+        lastSent.putIfAbsent(key, snapshot);
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("snapshot")
+                    .data(objectMapper.writeValueAsString(snapshot), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            remove.run();
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onZonesChanged(ZoneInventoryService.ZonesChanged change) {
+        DateKey key = new DateKey(change.eventId(), change.eventDateId());
+        if (subscribers.containsKey(key)) {
+            dirty.add(key);
+        }
+    }
+
+    /**
+     * Broadcast the changed zones of every dirty date. Runs at most
+     * max-updates-per-second times a second.
+     */
+    @Scheduled(fixedRateString = "#{1000 / ${booking.zone-stream.max-updates-per-second:4}}")
+    public void flush() {
+        for (DateKey key : dirty) {
+            dirty.remove(key);
+            Set<SseEmitter> dateSubscribers = subscribers.get(key);
+            if (dateSubscribers == null || dateSubscribers.isEmpty()) {
+                continue;
+            }
+            Map<String, ZoneUpdate> current = currentZones(key);
+            Map<String, ZoneUpdate> previous = lastSent.put(key, current);
+            Map<String, ZoneUpdate> changed = new LinkedHashMap<>();
+            current.forEach((zone, update) -> {
+                if (previous == null || !Objects.equals(previous.get(zone), update)) {
+                    changed.put(zone, update);
+                }
+            });
+            if (changed.isEmpty()) {
+                continue;
+            }
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(changed); // serialized once for all subscribers
+            } catch (IOException e) {
+                continue;
+            }
+            enqueue(key, () -> broadcast(key, dateSubscribers, "zones", payload));
+        }
+    }
+
+    /**
+     * Periodic comment line so proxies keep idle streams open and dead
+     * clients are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${booking.zone-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((key, dateSubscribers) -> {
+            for (SseEmitter emitter : dateSubscribers) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(key, emitter);
+                }
+            }
+        });
+    }
+
+    private Map<String, ZoneUpdate> currentZones(DateKey key) {
+        Map<String, ZoneUpdate> zones = new LinkedHashMap<>();
+        zoneInventoryService.getAvailability(key.eventId(), key.eventDateId()).forEach((zone, count) -> {
+            int available = count.available();
+            zones.put(zone, new ZoneUpdate(count.capacity(), count.booked(), available, available > 0));
+        });
+        return zones;
+    }
+
+    /**
+     * Queue a delivery behind the others of the same date. Only the call that
+     * finds no queue starts a drain task, so at most one runs per date.
+     */
+    private void enqueue(DateKey key, Runnable delivery) {
+        boolean[] idle = {false};
+        pending.compute(key, (k, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            queue.add(delivery);
+            return queue;
+        });
+        if (idle[0]) {
+            fanOut.execute(() -> drain(key));
+        }
+    }
+
+    private void drain(DateKey key) {
+        while (true) {
+            Runnable[] next = {null};
+            // The queue is dropped under the map lock once empty, so a later enqueue starts a new drain
+            pending.computeIfPresent(key, (k, queue) -> {
+                next[0] = queue.poll();
+                return next[0] != null ? queue : null;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            next[0].run();
+        }
+    }
+
+    private void broadcast(DateKey key, Set<SseEmitter> dateSubscribers, String eventName, String payload) {
+        for (SseEmitter emitter : dateSubscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(key, emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(DateKey key, SseEmitter emitter) {
+        subscribers.computeIfPresent(key, (k, dateSubscribers) -> {
+            dateSubscribers.remove(emitter);
+            if (dateSubscribers.isEmpty()) {
+                lastSent.remove(k);
+                dirty.remove(k);
+                return null;
+            }
+            return dateSubscribers;
+        });
+    }
+
+    private record DateKey(Long eventId, String eventDateId) {
+    }
+
+    /**
+     * Same shape as the zone-availability endpoint's ZoneAvailability.
+     */
+    private record ZoneUpdate(int capacity, int booked, int available, boolean isAvailable) {
+    }
+}
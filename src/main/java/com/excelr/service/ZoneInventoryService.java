@@ -0,0 +1,491 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.entity.EventEntity;
+import com.excelr.repository.BookingZonePassRepository;
+import com.excelr.repository.EventRepository;
+import com.excelr.service.impl.EventServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-(event, date, zone) pass counters for event zone availability.
+ *
+ * The counters for an event date are seeded once, on first access, from the
+ * event's eventConfig zones and a grouped query over booking_zone_passes. After
+ * that they are only adjusted incrementally when a booking is created or
+ * cancelled and when a hold is taken, confirmed or released, so availability
+ * reads are plain map lookups with no DB access or JSON parsing.
+ *
+ * When an event is edited (EventsChanged) its loaded dates pick up the new
+ * zone list and capacities; the existing counters are kept, so booked and
+ * held passes carry over. Dates removed from the event, and dates that have
+ * passed, are dropped from memory; date ids that are not in eventConfig are
+ * rejected and never get counters.
+ *
+ * Capacity is enforced here: every zone keeps a single "taken" counter
+ * (booked + held) that is only ever raised with a compare-and-set against the
+ * zone capacity, so parallel buyers can never push a zone past capacity and
+ * no DB row lock on the event is needed. A request spanning several zones
+ * reserves them one by one and rolls back what it already took if a later
+ * zone is sold out.
+ *
+ * A scheduled job re-counts the loaded dates from the DB and logs any counter
+ * that has drifted (e.g. bookings written by another instance); it never
+ * rewrites a counter.
+ *
+ * Every counter change is published as a {@link ZonesChanged} application
+ * event so live zone-availability streams know which dates to refresh.
+ */
+@Service
+@RequiredArgsConstructor
+public class ZoneInventoryService {
+
+    private final EventRepository eventRepository;
+    private final BookingZonePassRepository bookingZonePassRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<DateKey, DateInventory> inventories = new ConcurrentHashMap<>();
+
+    /**
+     * Capacity/booked/held for every zone of an event date, in eventConfig order.
+     */
+    public Map<String, ZoneCount> getAvailability(Long eventId, String eventDateId) {
+        Map<String, ZoneCount> result = new LinkedHashMap<>();
+        inventory(eventId, eventDateId).forEach((zone, counter) -> result.put(zone, counter.snapshot()));
+        return result;
+    }
+
+    /**
+     * Reserve the passes of an event booking before it is saved.
+     *
+     * @throws ZonesSoldOutException if any zone lacks capacity; nothing is reserved then
+     */
+    public void reserve(BookingEntity booking) {
+        if (!isEventBooking(booking)) {
+            return;
+        }
+        reserve(booking.getEvent().getId(), booking.getEventDateId(), zonesOf(booking), false);
+    }
+
+    /**
+     * Give back the passes of a cancelled event booking.
+     */
+    public void release(BookingEntity booking) {
+        if (!isEventBooking(booking)) {
+            return;
+        }
+        DateKey key = new DateKey(booking.getEvent().getId(), booking.getEventDateId());
+        if (!inventories.containsKey(key)) {
+            return; // never loaded, next read seeds from the DB
+        }
+        adjust(key.eventId(), key.eventDateId(), zonesOf(booking), -1, 0);
+    }
+
+    /**
+     * Reserve passes for a hold.
+     *
+     * @throws ZonesSoldOutException if any zone lacks capacity; nothing is reserved then
+     */
+    public void hold(Long eventId, String eventDateId, Map<String, Map<String, Integer>> zones) {
+        reserve(eventId, eventDateId, zones, true);
+    }
+
+    public void releaseHold(Long eventId, String eventDateId, Map<String, Map<String, Integer>> zones) {
+        adjust(eventId, eventDateId, zones, -1, -1);
+    }
+
+    /**
+     * Turn held passes into booked ones once the hold's booking is saved. The
+     * passes are already counted as taken, so only the held share changes.
+     */
+    public void confirmHold(Long eventId, String eventDateId, Map<String, Map<String, Integer>> zones) {
+        adjust(eventId, eventDateId, zones, 0, -1);
+    }
+
+    /**
+     * Zone selections stored in a booking's bookingDetails JSON
+     * ({"selectedZones": {zone: {adult: n, child: m}}}).
+     */
+    public Map<String, Map<String, Integer>> zonesOf(BookingEntity booking) {
+        if (booking.getBookingDetails() == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> details = objectMapper.readValue(booking.getBookingDetails(), Map.class);
+            Object selected = details.get("selectedZones");
+            if (!(selected instanceof Map<?, ?> zones)) {
+                return Collections.emptyMap();
+            }
+            Map<String, Map<String, Integer>> result = new HashMap<>();
+            zones.forEach((zone, counts) -> {
+                if (counts instanceof Map<?, ?> countMap) {
+                    Map<String, Integer> parsed = new HashMap<>();
+                    countMap.forEach((category, qty) -> {
+                        if (qty instanceof Number n) {
+                            parsed.put(String.valueOf(category), n.intValue());
+                        }
+                    });
+                    result.put(String.valueOf(zone), parsed);
+                }
+            });
+            return result;
+        } catch (Exception e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Passes in one zone selection (adults + children). Negative counts are
+     * rejected by reserve, so they never add up to a net value here.
+     */
+    public static int passesOf(Map<String, Integer> counts) {
+        if (counts == null) {
+            return 0;
+        }
+        return Math.max(0, countOf(counts, "adult")) + Math.max(0, countOf(counts, "child"));
+    }
+
+    private static int countOf(Map<String, Integer> counts, String category) {
+        Integer count = counts.get(category);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Re-count every loaded event date from the DB and log zones whose booked
+     * counter disagrees with it. Counters are never overwritten here: a
+     * booking reserves passes before it commits and a cancellation commits
+     * before it gives them back, so the DB count legitimately lags the
+     * counters and a "repair" could erase a live reservation. Drift is only
+     * reported when the counter did not move while the DB was read.
+     *
+     * Dates that have passed are dropped here instead of being checked, and
+     * so are dates whose day eventConfig doesn't give once nothing is held on
+     * them (their booked counts are re-read from the DB on the next access).
+     */
+    @Scheduled(fixedDelayString = "${booking.zone-reconcile-ms:300000}", initialDelayString = "${booking.zone-reconcile-ms:300000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<DateKey, DateInventory> entry : inventories.entrySet()) {
+            DateKey key = entry.getKey();
+            LocalDate date = entry.getValue().date();
+            if (date != null ? date.isBefore(today) : nothingHeld(entry.getValue())) {
+                inventories.remove(key, entry.getValue());
+                continue;
+            }
+            Map<String, ZoneCounter> counters = entry.getValue().zones();
+
+            Map<String, ZoneCount> before = new HashMap<>();
+            counters.forEach((zone, counter) -> before.put(zone, counter.snapshot()));
+
+            Map<String, Integer> actual = countBookedPasses(key.eventId(), key.eventDateId());
+
+            counters.forEach((zone, counter) -> {
+                ZoneCount seen = before.get(zone);
+                int expectedBooked = actual.getOrDefault(zone, 0);
+                if (seen.booked() != expectedBooked && seen.equals(counter.snapshot())) {
+                    System.err.println("Zone counter drift for event " + key.eventId() + " date "
+                            + key.eventDateId() + " zone " + zone + ": counter " + seen.booked() + ", DB "
+                            + expectedBooked);
+                }
+            });
+        }
+    }
+
+    /**
+     * Apply an event edit to its loaded dates: new zones are added, removed
+     * zones dropped and capacities updated on the existing counters.
+     */
+    @EventListener
+    public void onEventsChanged(EventServiceImpl.EventsChanged change) {
+        List<DateKey> loaded = inventories.keySet().stream()
+                .filter(key -> key.eventId().equals(change.eventId()))
+                .toList();
+        if (loaded.isEmpty()) {
+            return;
+        }
+        EventEntity event = eventRepository.findById(change.eventId()).orElse(null);
+        for (DateKey key : loaded) {
+            inventories.computeIfPresent(key, (k, current) -> refresh(k, current, event));
+            eventPublisher.publishEvent(new ZonesChanged(key.eventId(), key.eventDateId()));
+        }
+    }
+
+    private void reserve(Long eventId, String eventDateId, Map<String, Map<String, Integer>> zones,
+            boolean asHold) {
+        if (zones == null || zones.isEmpty()) {
+            throw new IllegalArgumentException("No zones selected");
+        }
+        for (Map.Entry<String, Map<String, Integer>> entry : zones.entrySet()) {
+            Map<String, Integer> counts = entry.getValue();
+            if (counts != null && (countOf(counts, "adult") < 0 || countOf(counts, "child") < 0)) {
+                throw new IllegalArgumentException("Invalid pass count for zone: " + entry.getKey());
+            }
+        }
+        Map<String, ZoneCounter> counters = inventory(eventId, eventDateId);
+
+        Map<ZoneCounter, Integer> reserved = new HashMap<>();
+        List<String> soldOut = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : zones.entrySet()) {
+            ZoneCounter counter = counters.get(entry.getKey());
+            if (counter == null) {
+                rollback(reserved, asHold);
+                throw new IllegalArgumentException("Unknown zone: " + entry.getKey());
+            }
+            int passes = passesOf(entry.getValue());
+            if (passes == 0) {
+                continue;
+            }
+            if (!counter.tryTake(passes)) {
+                soldOut.add(entry.getKey());
+                break; // fail fast, no point taking more
+            }
+            reserved.put(counter, passes);
+            if (asHold) {
+                counter.held.addAndGet(passes);
+            }
+        }
+
+        if (!soldOut.isEmpty()) {
+            rollback(reserved, asHold);
+            Map<String, Integer> remaining = new LinkedHashMap<>();
+            counters.forEach((zone, counter) -> remaining.put(zone, Math.max(0, counter.snapshot().available())));
+            throw new ZonesSoldOutException(soldOut, remaining);
+        }
+        if (!reserved.isEmpty()) {
+            eventPublisher.publishEvent(new ZonesChanged(eventId, eventDateId));
+        }
+    }
+
+    private void rollback(Map<ZoneCounter, Integer> reserved, boolean asHold) {
+        reserved.forEach((counter, passes) -> {
+            if (asHold) {
+                counter.held.addAndGet(-passes);
+            }
+            counter.taken.addAndGet(-passes);
+        });
+    }
+
+    private void adjust(Long eventId, String eventDateId, Map<String, Map<String, Integer>> zones,
+            int takenSign, int heldSign) {
+        if (zones == null || zones.isEmpty()) {
+            return;
+        }
+        Map<String, ZoneCounter> counters = inventory(eventId, eventDateId);
+        zones.forEach((zone, counts) -> {
+            ZoneCounter counter = counters.get(zone);
+            if (counter == null) {
+                return; // zone not in eventConfig
+            }
+            int passes = passesOf(counts);
+            if (takenSign != 0) {
+                counter.taken.addAndGet(takenSign * passes);
+            }
+            if (heldSign != 0) {
+                counter.held.addAndGet(heldSign * passes);
+            }
+        });
+        eventPublisher.publishEvent(new ZonesChanged(eventId, eventDateId));
+    }
+
+    private static boolean nothingHeld(DateInventory inventory) {
+        return inventory.zones().values().stream().allMatch(counter -> counter.held.get() == 0);
+    }
+
+    private boolean isEventBooking(BookingEntity booking) {
+        return booking.getType() == BookingType.EVENT && booking.getEvent() != null
+                && booking.getEvent().getId() != null;
+    }
+
+    private Map<String, ZoneCounter> inventory(Long eventId, String eventDateId) {
+        return inventories.computeIfAbsent(new DateKey(eventId, eventDateId), this::loadInventory).zones();
+    }
+
+    // One-time seed per event date: zone capacities from eventConfig, booked passes from the DB
+    private DateInventory loadInventory(DateKey key) {
+        EventEntity event = eventRepository.findById(key.eventId())
+                .orElseThrow(() -> new IllegalArgumentException("Event not found with id: " + key.eventId()));
+        EventConfig config = parseConfig(event);
+        if (!config.dates().containsKey(key.eventDateId())) {
+            throw new IllegalArgumentException("Unknown event date: " + key.eventDateId());
+        }
+
+        Map<String, ZoneCounter> counters = new LinkedHashMap<>();
+        config.capacities().forEach((zone, capacity) -> counters.put(zone, new ZoneCounter(capacity)));
+        countBookedPasses(key.eventId(), key.eventDateId()).forEach((zone, passes) -> {
+            ZoneCounter counter = counters.get(zone);
+            if (counter != null) {
+                counter.taken.set(passes);
+            }
+        });
+        return new DateInventory(config.dates().get(key.eventDateId()), Collections.unmodifiableMap(counters));
+    }
+
+    // Same counters under the edited config; null (drop the date) if the event or the date is gone
+    private DateInventory refresh(DateKey key, DateInventory current, EventEntity event) {
+        if (event == null) {
+            return null;
+        }
+        EventConfig config;
+        try {
+            config = parseConfig(event);
+        } catch (RuntimeException e) {
+            return current; // keep selling against the last good config
+        }
+        if (!config.dates().containsKey(key.eventDateId())) {
+            return null;
+        }
+        Map<String, Integer> booked = null;
+        Map<String, ZoneCounter> counters = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> zone : config.capacities().entrySet()) {
+            ZoneCounter counter = current.zones().get(zone.getKey());
+            if (counter == null) {
+                if (booked == null) {
+                    booked = countBookedPasses(key.eventId(), key.eventDateId());
+                }
+                counter = new ZoneCounter(zone.getValue());
+                counter.taken.set(booked.getOrDefault(zone.getKey(), 0));
+            }
+            counter.capacity = zone.getValue();
+            counters.put(zone.getKey(), counter);
+        }
+        return new DateInventory(config.dates().get(key.eventDateId()), Collections.unmodifiableMap(counters));
+    }
+
+    // Zone capacities (in eventConfig order) and the calendar day of every date id
+    private EventConfig parseConfig(EventEntity event) {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> eventConfigMap = objectMapper.readValue(event.getEventConfig(), Map.class);
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> zones = (List<Map<String, Object>>) eventConfigMap.get("zones");
+            Map<String, Integer> capacities = new LinkedHashMap<>();
+            for (Map<String, Object> zoneData : zones) {
+                String zoneName = (String) zoneData.get("name");
+                Object capacity = zoneData.get("capacity");
+                capacities.put(zoneName, capacity instanceof Number n ? n.intValue() : 0);
+            }
+            Map<String, LocalDate> dates = new HashMap<>();
+            if (eventConfigMap.get("dates") instanceof List<?> dateList) {
+                for (Object item : dateList) {
+                    if (item instanceof Map<?, ?> date && date.get("id") != null) {
+                        dates.put(String.valueOf(date.get("id")), dayOf(date.get("date")));
+                    }
+                }
+            }
+            return new EventConfig(capacities, dates);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse event config", e);
+        }
+    }
+
+    private Map<String, Integer> countBookedPasses(Long eventId, String eventDateId) {
+        Map<String, Integer> passesByZone = new HashMap<>();
+        for (BookingZonePassRepository.ZonePassCount count : bookingZonePassRepository.sumPassesByZone(eventId,
+                eventDateId)) {
+            passesByZone.put(count.getZone(), count.getPasses() != null ? count.getPasses().intValue() : 0);
+        }
+        return passesByZone;
+    }
+
+    // "yyyy-MM-dd..." to a LocalDate; null if missing or unparseable
+    private static LocalDate dayOf(Object value) {
+        if (!(value instanceof String text) || text.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record DateKey(Long eventId, String eventDateId) {
+    }
+
+    // date is the calendar day of the event date, null when eventConfig doesn't give one
+    private record DateInventory(LocalDate date, Map<String, ZoneCounter> zones) {
+    }
+
+    private record EventConfig(Map<String, Integer> capacities, Map<String, LocalDate> dates) {
+    }
+
+    private static final class ZoneCounter {
+
+        private volatile int capacity; // changes when the event is edited
+        private final AtomicInteger taken = new AtomicInteger(); // booked + held
+        private final AtomicInteger held = new AtomicInteger();
+
+        ZoneCounter(int capacity) {
+            this.capacity = capacity;
+        }
+
+        boolean tryTake(int passes) {
+            while (true) {
+                int current = taken.get();
+                if (current + passes > capacity) {
+                    return false;
+                }
+                if (taken.compareAndSet(current, current + passes)) {
+                    return true;
+                }
+            }
+        }
+
+        ZoneCount snapshot() {
+            int heldNow = held.get();
+            return new ZoneCount(capacity, taken.get() - heldNow, heldNow);
+        }
+    }
+
+    /**
+     * Point-in-time counts for one zone.
+     */
+    public record ZoneCount(int capacity, int booked, int held) {
+
+        public int available() {
+            return Math.max(0, capacity - booked - held); // capacity may be cut below what is sold
+        }
+    }
+
+    /**
+     * Counters of an event date moved (booking, cancellation, hold or event edit).
+     */
+    public record ZonesChanged(Long eventId, String eventDateId) {
+    }
+
+    /**
+     * Raised when a zone has fewer passes left than requested.
+     */
+    @Getter
+    public static class ZonesSoldOutException extends RuntimeException {
+
+        private final List<String> zones;
+        private final Map<String, Integer> remaining;
+
+        public ZonesSoldOutException(List<String> zones, Map<String, Integer> remaining) {
+            super("Sold out: " + String.join(", ", zones));
+            this.zones = zones;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package com.excelr.service.impl;
 
 import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingSeatEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.entity.BookingZonePassEntity;
+import com.excelr.entity.EventEntity;
+import com.excelr.entity.ShowEntity;
 import com.excelr.entity.UserEntity;
 import com.excelr.repository.BookingRepository;
+import com.excelr.repository.BookingRollupRepository;
+import com.excelr.repository.BookingSeatRepository;
+import com.excelr.repository.BookingZonePassRepository;
+import com.excelr.service.BookingHoldService;
+import com.excelr.service.BookingRollupService;
+import com.excelr.service.SeatInventoryService;
+import com.excelr.service.ZoneInventoryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl {
 
     private final BookingRepository bookingRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final BookingHoldService bookingHoldService;
+    private final ZoneInventoryService zoneInventoryService;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final BookingZonePassRepository bookingZonePassRepository;
+    private final BookingRollupService bookingRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
     private static final SecureRandom RNG = new SecureRandom();
     private static final char[] CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
     private static final int CODE_LEN = 12; // BK + 12 chars => 14 total
@@ -30,7 +61,116 @@ public class BookingServiceImpl {
     }
 
     public BookingEntity createBooking(BookingEntity booking, UserEntity user) {
+        prepareBooking(booking, user);
+        // Reserve seats / zone passes first; throws SeatsUnavailableException or
+        // ZonesSoldOutException when the inventory is gone
+        seatInventoryService.claim(booking);
+        try {
+            zoneInventoryService.reserve(booking);
+        } catch (RuntimeException e) {
+            seatInventoryService.release(booking);
+            throw e;
+        }
+        try {
+            return persist(booking);
+        } catch (RuntimeException e) {
+            seatInventoryService.release(booking);
+            zoneInventoryService.release(booking);
+            throw e;
+        }
+    }
+
+    /**
+     * Confirm a booking whose seats/zone passes were already reserved by a hold.
+     * The hold must have been taken with BookingHoldService.consume().
+     */
+    public BookingEntity createBookingFromHold(BookingEntity booking, UserEntity user, BookingHoldService.Hold hold) {
+        prepareBooking(booking, user);
+        BookingEntity saved;
+        try {
+            saved = persist(booking);
+        } catch (RuntimeException e) {
+            bookingHoldService.abandon(hold);
+            throw e;
+        }
+        bookingHoldService.complete(hold);
+        return saved;
+    }
+
+    /**
+     * Save the booking, its booking_seats / booking_zone_passes rows and its
+     * rollup deltas in one transaction. Runs through TransactionTemplate so a failed commit (e.g. the
+     * unique seat key) surfaces here and the caller can release inventory.
+     */
+    private BookingEntity persist(BookingEntity booking) {
+        return transactionTemplate.execute(status -> {
+            BookingEntity saved = bookingRepository.save(booking);
+            bookingSeatRepository.saveAll(seatRowsOf(saved));
+            bookingZonePassRepository.saveAll(zonePassRowsOf(saved));
+            bookingRollupService.recordBooked(saved);
+            return saved;
+        });
+    }
+
+    /**
+     * Normalized booking_seats rows for a movie booking (empty for events).
+     */
+    public List<BookingSeatEntity> seatRowsOf(BookingEntity booking) {
+        List<BookingSeatEntity> rows = new ArrayList<>();
+        if (booking.getType() != BookingType.MOVIE || booking.getShow() == null) {
+            return rows;
+        }
+        Set<String> vipRows = vipRowsOf(booking.getShow());
+        for (String seat : seatInventoryService.seatsOf(booking)) {
+            String row = seat != null && !seat.isEmpty() ? seat.substring(0, 1).toUpperCase() : "";
+            rows.add(BookingSeatEntity.builder()
+                    .booking(booking)
+                    .showId(booking.getShow().getId())
+                    .seatLabel(seat)
+                    .tier(vipRows.contains(row) ? "VIP" : null)
+                    .build());
+        }
+        return rows;
+    }
+
+    // Rows the show's seatState marks as VIP ({"vipRows": ["L","M"], ...}); empty when it has no layout
+    private Set<String> vipRowsOf(ShowEntity show) {
+        Set<String> vipRows = new HashSet<>();
+        if (show.getSeatState() == null) {
+            return vipRows;
+        }
+        try {
+            for (JsonNode row : objectMapper.readTree(show.getSeatState()).path("vipRows")) {
+                vipRows.add(row.asText().toUpperCase());
+            }
+        } catch (Exception e) {
+            // unparseable layout: no tier recorded
+        }
+        return vipRows;
+    }
+
+    /**
+     * Normalized booking_zone_passes rows for an event booking (empty for movies).
+     */
+    public List<BookingZonePassEntity> zonePassRowsOf(BookingEntity booking) {
+        List<BookingZonePassEntity> rows = new ArrayList<>();
+        if (booking.getType() != BookingType.EVENT || booking.getEvent() == null) {
+            return rows;
+        }
+        zoneInventoryService.zonesOf(booking).forEach((zone, counts) -> rows.add(BookingZonePassEntity.builder()
+                .booking(booking)
+                .eventId(booking.getEvent().getId())
+                .dateId(booking.getEventDateId())
+                .zone(zone)
+                .adult(counts.getOrDefault("adult", 0))
+                .child(counts.getOrDefault("child", 0))
+                .build()));
+        return rows;
+    }
+
+    private void prepareBooking(BookingEntity booking, UserEntity user) {
         booking.setUser(user);
+        booking.setNormalized(true); // persist() writes the booking_seats / booking_zone_passes rows
         if (booking.getBookedAt() == null) {
             booking.setBookedAt(LocalDateTime.now());
         }
@@ -47,13 +187,58 @@ public class BookingServiceImpl {
                 throw new IllegalStateException("Failed to generate booking code");
             }
         }
-        return bookingRepository.save(booking);
+        if (booking.getType() == BookingType.EVENT && booking.getEventDate() == null) {
+            booking.setEventDate(eventDateOf(booking.getEvent(), booking.getEventDateId()));
+        }
+    }
+
+    // Calendar day of an eventConfig.dates entry ({id, date: "yyyy-MM-dd..."}); null when it can't be found
+    public LocalDate eventDateOf(EventEntity event, String eventDateId) {
+        if (event == null || event.getEventConfig() == null || eventDateId == null) {
+            return null;
+        }
+        try {
+            for (JsonNode date : objectMapper.readTree(event.getEventConfig()).path("dates")) {
+                String value = date.path("date").asText("");
+                if (eventDateId.equals(date.path("id").asText()) && value.length() >= 10) {
+                    return LocalDate.parse(value.substring(0, 10));
+                }
+            }
+        } catch (Exception e) {
+            // unparseable config: the booking just sorts as undated
+        }
+        return null;
+    }
+
+    /**
+     * Feed every row of the admin booking list to the action, read through a
+     * DB cursor inside one transaction.
+     */
+    public void forEachBookingListRow(Consumer<BookingRepository.BookingListRow> action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingRepository.BookingListRow> rows = bookingRepository.streamBookingList()) {
+                rows.forEach(action);
+            }
+        });
     }
 
     public List<BookingEntity> getBookingsForUser(UserEntity user) {
         return bookingRepository.findByUser(user);
     }
 
+    /**
+     * One page of a user's bookings as slim rows: upcoming ones soonest first,
+     * past ones most recent first.
+     */
+    public Slice<BookingRepository.MyBookingRow> getBookingsForUser(Long userId, boolean upcoming, int page,
+            int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        LocalDate today = LocalDate.now();
+        return upcoming
+                ? bookingRepository.findUpcomingForUser(userId, today, pageRequest)
+                : bookingRepository.findPastForUser(userId, today, pageRequest);
+    }
+
     public BookingEntity cancelBooking(Long bookingId, UserEntity user) {
         BookingEntity booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found with id: " + bookingId));
@@ -72,108 +257,63 @@ public class BookingServiceImpl {
             throw new IllegalArgumentException("The cancellation period of 30min is completed");
         }
 
-        // Proceed with cancellation
+        // The status flip is a conditional UPDATE, so of two concurrent cancels only
+        // one gets a row back; only that one removes rows, rollups and inventory
+        boolean cancelled = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (bookingRepository.markCancelled(bookingId, com.excelr.entity.Status.CANCELLED,
+                    com.excelr.entity.PaymentStatus.REFUNDED) == 0) {
+                return false;
+            }
+            bookingSeatRepository.deleteByBookingId(bookingId);
+            bookingZonePassRepository.deleteByBookingId(bookingId);
+            bookingRollupService.recordCancelled(booking);
+            return true;
+        }));
+        if (!cancelled) {
+            throw new IllegalArgumentException("Booking is already cancelled");
+        }
         booking.setStatus(com.excelr.entity.Status.CANCELLED);
         booking.setPaymentStatus(com.excelr.entity.PaymentStatus.REFUNDED);
-
-        return bookingRepository.save(booking);
+        seatInventoryService.release(booking);
+        zoneInventoryService.release(booking);
+        return booking;
     }
 
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-
+    /**
+     * Revenue, booking and seat totals for a movie, grouped by venue. Read from
+     * the per-show rollups, so the cost grows with the number of shows, not
+     * bookings.
+     */
     public java.util.Map<String, Object> getMovieAnalytics(Long movieId, Long ownerId) {
-        List<BookingEntity> bookings;
-        if (ownerId != null) {
-            bookings = bookingRepository.findByShowTmdbMovieIdAndShowVenueOwnerIdAndStatus(movieId, ownerId,
-                    com.excelr.entity.Status.CONFIRMED);
-        } else {
-            bookings = bookingRepository.findByShowTmdbMovieIdAndStatus(movieId, com.excelr.entity.Status.CONFIRMED);
-        }
-        return calculateAnalytics(bookings, true);
+        return buildAnalytics(bookingRollupService.getMovieTotalsByVenue(movieId, ownerId));
     }
 
+    /**
+     * Same as {@link #getMovieAnalytics} for an event, read from its rollup;
+     * seats are the booked zone passes (adults + children).
+     */
     public java.util.Map<String, Object> getEventAnalytics(Long eventId, Long ownerId) {
-        List<BookingEntity> bookings;
-        if (ownerId != null) {
-            bookings = bookingRepository.findByEventIdAndEventOwnerIdAndStatus(eventId, ownerId,
-                    com.excelr.entity.Status.CONFIRMED);
-        } else {
-            bookings = bookingRepository.findByEventIdAndStatus(eventId, com.excelr.entity.Status.CONFIRMED);
-        }
-        return calculateAnalytics(bookings, false);
+        return buildAnalytics(bookingRollupService.getEventTotalsByVenue(eventId, ownerId));
     }
 
-    private java.util.Map<String, Object> calculateAnalytics(List<BookingEntity> bookings, boolean isMovie) {
+    private java.util.Map<String, Object> buildAnalytics(List<BookingRollupRepository.VenueTotals> rows) {
         java.math.BigDecimal totalRevenue = java.math.BigDecimal.ZERO;
-        int totalBookings = bookings.size();
+        int totalBookings = 0;
         int totalSeats = 0;
         java.util.Map<String, java.util.Map<String, Object>> venueStats = new java.util.HashMap<>();
 
-        for (BookingEntity b : bookings) {
-            // Sum Revenue
-            if (b.getTotalAmount() != null) {
-                totalRevenue = totalRevenue.add(b.getTotalAmount());
-            }
-
-            // Count Seats
-            int seatsInBooking = 0;
-            try {
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> details = objectMapper.readValue(b.getBookingDetails(),
-                        java.util.Map.class);
-
-                if (isMovie) {
-                    if (details.containsKey("seats")) {
-                        @SuppressWarnings("unchecked")
-                        List<String> seats = (List<String>) details.get("seats");
-                        seatsInBooking = seats != null ? seats.size() : 0;
-                    }
-                } else {
-                    // Event: sum zone quantities
-                    if (details.containsKey("selectedZones")) {
-                        @SuppressWarnings("unchecked")
-                        java.util.Map<String, Object> zones = (java.util.Map<String, Object>) details
-                                .get("selectedZones");
-                        for (Object zoneVal : zones.values()) {
-                            if (zoneVal instanceof java.util.Map) {
-                                @SuppressWarnings("unchecked")
-                                java.util.Map<String, Object> cats = (java.util.Map<String, Object>) zoneVal;
-                                for (Object qty : cats.values()) {
-                                    if (qty instanceof Number) {
-                                        seatsInBooking += ((Number) qty).intValue();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // ignore parsing error, count as 0
-            }
-            totalSeats += seatsInBooking;
-
-            // Group by Venue
-            String venueName = "Unknown Venue";
-            if (isMovie && b.getShow() != null && b.getShow().getVenue() != null) {
-                venueName = b.getShow().getVenue().getName();
-            } else if (!isMovie && b.getEvent() != null) {
-                if (b.getEvent().getVenue() != null) {
-                    venueName = b.getEvent().getVenue().getName();
-                } else if (b.getEvent().getAddress() != null) {
-                    venueName = b.getEvent().getAddress();
-                }
-            }
-
-            venueStats.putIfAbsent(venueName, new java.util.HashMap<>(java.util.Map.of(
-                    "revenue", java.math.BigDecimal.ZERO,
-                    "bookings", 0,
-                    "seats", 0)));
+        for (BookingRollupRepository.VenueTotals row : rows) {
+            java.math.BigDecimal revenue = row.getRevenue() != null ? row.getRevenue() : java.math.BigDecimal.ZERO;
+            int bookings = row.getBookings() != null ? row.getBookings().intValue() : 0;
+            int seats = row.getSeats() != null ? row.getSeats().intValue() : 0;
+            totalRevenue = totalRevenue.add(revenue);
+            totalBookings += bookings;
+            totalSeats += seats;
 
-            java.util.Map<String, Object> stats = venueStats.get(venueName);
-            stats.put("revenue", ((java.math.BigDecimal) stats.get("revenue"))
-                    .add(b.getTotalAmount() != null ? b.getTotalAmount() : java.math.BigDecimal.ZERO));
-            stats.put("bookings", (Integer) stats.get("bookings") + 1);
-            stats.put("seats", (Integer) stats.get("seats") + seatsInBooking);
+            java.util.Map<String, Object> stats = venueStats(venueStats, row.getVenue());
+            stats.put("revenue", ((java.math.BigDecimal) stats.get("revenue")).add(revenue));
+            stats.put("bookings", (Integer) stats.get("bookings") + bookings);
+            stats.put("seats", (Integer) stats.get("seats") + seats);
         }
 
         return java.util.Map.of(
@@ -182,4 +322,13 @@ public class BookingServiceImpl {
                 "totalSeats", totalSeats,
                 "revenueByVenue", venueStats);
     }
+
+    private java.util.Map<String, Object> venueStats(java.util.Map<String, java.util.Map<String, Object>> venueStats,
+            String venueName) {
+        return venueStats.computeIfAbsent(venueName != null ? venueName : "Unknown Venue",
+                name -> new java.util.HashMap<>(java.util.Map.of(
+                        "revenue", java.math.BigDecimal.ZERO,
+                        "bookings", 0,
+                        "seats", 0)));
+    }
 }
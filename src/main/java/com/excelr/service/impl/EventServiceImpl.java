@@ -3,24 +3,105 @@ package com.excelr.service.impl;
 import com.excelr.entity.EventEntity;
 import com.excelr.entity.UserEntity;
 import com.excelr.repository.EventRepository;
+import com.excelr.service.CacheMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Events, with the public catalog (full list and single events) served from
+ * a bounded in-process cache. Every write through this service evicts the
+ * affected entries and publishes {@link EventsChanged}; venue changes evict
+ * everything since events embed their venue.
+ */
 @Service
 @RequiredArgsConstructor
 public class EventServiceImpl {
 
+    private static final String ALL = "all";
+
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${catalog.cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    @Value("${catalog.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, List<EventEntity>> eventLists;
+    private Cache<Long, Optional<EventEntity>> eventsById;
+
+    @PostConstruct
+    void initCaches() {
+        eventLists = cacheMetrics.register("events.list", Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build());
+        eventsById = cacheMetrics.register("events.byId", Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build());
+    }
 
     public EventEntity createEvent(EventEntity event, UserEntity owner) {
         event.setOwner(owner);
-        return eventRepository.save(event);
+        EventEntity saved = eventRepository.save(event);
+        evict(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Save changes to an existing event and evict it from the catalog cache.
+     */
+    public EventEntity updateEvent(EventEntity event) {
+        EventEntity saved = eventRepository.save(event);
+        evict(saved.getId());
+        return saved;
+    }
+
+    /**
+     * All events (any status) with their venue, for the user-side listing.
+     */
+    public List<EventEntity> getAllEvents() {
+        return eventLists.get(ALL, key -> List.copyOf(eventRepository.findAll()));
+    }
+
+    public Optional<EventEntity> getEvent(Long id) {
+        return eventsById.get(id, eventRepository::findById);
     }
 
     public List<EventEntity> getEventsByOwner(UserEntity owner) {
         return eventRepository.findByOwner(owner);
     }
-}
 
+    @EventListener
+    public void onVenueChanged(VenueServiceImpl.VenueChanged change) {
+        eventLists.invalidateAll();
+        eventsById.invalidateAll();
+    }
+
+    private void evict(Long eventId) {
+        eventLists.invalidateAll();
+        eventsById.invalidate(eventId);
+        eventPublisher.publishEvent(new EventsChanged(eventId));
+    }
+
+    /**
+     * An event was created or changed.
+     */
+    public record EventsChanged(Long eventId) {
+    }
+}
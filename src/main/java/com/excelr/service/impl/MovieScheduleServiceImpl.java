@@ -5,7 +5,6 @@ import com.excelr.entity.ShowEntity;
 import com.excelr.entity.Status;
 import com.excelr.entity.VenueEntity;
 import com.excelr.repository.MovieScheduleRepository;
-import com.excelr.repository.ShowRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +18,6 @@ import java.util.List;
 public class MovieScheduleServiceImpl {
 
     private final MovieScheduleRepository movieScheduleRepository;
-    private final ShowRepository showRepository;
 
     public MovieScheduleEntity createSchedule(MovieScheduleEntity schedule) {
         return movieScheduleRepository.save(schedule);
@@ -29,14 +27,18 @@ public class MovieScheduleServiceImpl {
         return movieScheduleRepository.findByVenueAndEndDateGreaterThanEqual(venue, fromDate);
     }
 
-    public List<ShowEntity> generateShowsForSchedule(MovieScheduleEntity schedule) {
+    /**
+     * One unsaved show per date x showtime of the schedule between from and to
+     * (inclusive).
+     */
+    public List<ShowEntity> buildShows(MovieScheduleEntity schedule, LocalDate from, LocalDate to) {
         // Very simple implementation: parse showtimes JSON as a comma-separated list
         // In production, you would use a proper JSON library.
         List<String> showtimes = parseShowtimes(schedule.getShowtimes());
 
         List<ShowEntity> showsToSave = new ArrayList<>();
-        LocalDate current = schedule.getStartDate();
-        while (!current.isAfter(schedule.getEndDate())) {
+        LocalDate current = from;
+        while (!current.isAfter(to)) {
             for (String time : showtimes) {
                 ShowEntity show = ShowEntity.builder()
                         .venue(schedule.getVenue())
@@ -59,7 +61,25 @@ public class MovieScheduleServiceImpl {
             }
             current = current.plusDays(1);
         }
-        return showRepository.saveAll(showsToSave);
+        return showsToSave;
+    }
+
+    /**
+     * Number of shows the schedule has between from and to (inclusive).
+     */
+    public int countShows(MovieScheduleEntity schedule, LocalDate from, LocalDate to) {
+        return countShows(schedule.getShowtimes(), from, to);
+    }
+
+    /**
+     * Number of shows between from and to (inclusive) for a raw showtimes list.
+     */
+    public int countShows(String showtimes, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        long days = java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
+        return (int) (days * parseShowtimes(showtimes).size());
     }
 
     private List<String> parseShowtimes(String raw) {
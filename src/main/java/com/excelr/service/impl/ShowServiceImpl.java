@@ -1,26 +1,265 @@
 package com.excelr.service.impl;
 
+import com.excelr.entity.MovieScheduleEntity;
 import com.excelr.entity.ShowEntity;
+import com.excelr.entity.Status;
 import com.excelr.entity.VenueEntity;
+import com.excelr.repository.MovieScheduleRepository;
 import com.excelr.repository.ShowRepository;
+import com.excelr.service.CacheMetrics;
+import com.excelr.service.ShowGenerationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Show lookups for the booking flow.
+ *
+ * With schedule.virtual-shows.enabled=true, schedules no longer generate show
+ * rows. Shows for a venue and date are computed from the active schedules
+ * (date range, showtimes, prices) and only written to the shows table when
+ * the first hold or booking is made on them. A virtual show carries a
+ * deterministic negative id that encodes (schedule id, day in the schedule,
+ * showtime index), so clients can use it like any other show id: it is
+ * resolved to the persisted row once that exists.
+ */
 @Service
 @RequiredArgsConstructor
 public class ShowServiceImpl {
 
+    private static final int TIME_BITS = 6;  // up to 64 showtimes per day
+    private static final int DAY_BITS = 20;  // up to ~2800 years per schedule
+    private static final int LOCK_STRIPES = 64;
+
     private final ShowRepository showRepository;
+    private final MovieScheduleRepository movieScheduleRepository;
+    private final MovieScheduleServiceImpl movieScheduleService;
+    private final ShowGenerationService showGenerationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${schedule.virtual-shows.enabled:false}")
+    private boolean virtualShowsEnabled;
+
+    @Value("${schedule.virtual-shows.unbooked-cache.max-size:100000}")
+    private long unbookedCacheMaxSize;
+
+    // Virtual id -> id of the persisted show, filled as shows are materialized or found
+    private final Map<Long, Long> materializedIds = new ConcurrentHashMap<>();
+    private final ReentrantLock[] materializeLocks = new ReentrantLock[LOCK_STRIPES];
+
+    // Virtual ids found to have no persisted show, so polling them does not query the shows table
+    private Cache<Long, Boolean> unbookedIds;
+
+    // Bumped on every invalidation; a lookup is only cached if no bump happened while it ran
+    private final AtomicLong unbookedGeneration = new AtomicLong();
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            materializeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void initCache() {
+        unbookedIds = cacheMetrics.register("shows.unbooked", Caffeine.newBuilder()
+                .maximumSize(unbookedCacheMaxSize)
+                .recordStats()
+                .build());
+    }
+
+    public boolean isVirtualShowsEnabled() {
+        return virtualShowsEnabled;
+    }
 
     public List<ShowEntity> getShowsForVenueAndDate(VenueEntity venue, LocalDate date) {
-        return showRepository.findByVenueAndShowDate(venue, date);
+        if (!virtualShowsEnabled) {
+            // Dates past a schedule's eager window are generated on first read
+            showGenerationService.ensureGeneratedThrough(venue, date);
+        }
+        List<ShowEntity> shows = showRepository.findByVenueAndShowDate(venue, date);
+        return virtualShowsEnabled ? withVirtualShows(shows, venue, date, null) : shows;
     }
 
     public List<ShowEntity> getShowsForVenueDateAndMovie(VenueEntity venue, LocalDate date, Long tmdbMovieId) {
-        return showRepository.findByVenueAndShowDateAndTmdbMovieId(venue, date, tmdbMovieId);
+        if (!virtualShowsEnabled) {
+            showGenerationService.ensureGeneratedThrough(venue, date);
+        }
+        List<ShowEntity> shows = showRepository.findByVenueAndShowDateAndTmdbMovieId(venue, date, tmdbMovieId);
+        return virtualShowsEnabled ? withVirtualShows(shows, venue, date, tmdbMovieId) : shows;
+    }
+
+    public static boolean isVirtualId(Long showId) {
+        return showId != null && showId < 0;
+    }
+
+    /**
+     * Id to use for seat inventory: the persisted show's id once a virtual show
+     * has been materialized, otherwise the id itself.
+     */
+    public Long resolveId(Long showId) {
+        if (!isVirtualId(showId)) {
+            return showId;
+        }
+        Long materialized = materializedIds.get(showId);
+        if (materialized != null) {
+            return materialized;
+        }
+        if (unbookedIds.getIfPresent(showId) != null) {
+            return showId;
+        }
+        long generation = unbookedGeneration.get();
+        Optional<ShowEntity> show = findMaterialized(showId);
+        if (show.isPresent()) {
+            return show.get().getId();
+        }
+        if (unbookedGeneration.get() == generation) {
+            unbookedIds.put(showId, Boolean.TRUE);
+        }
+        return showId;
+    }
+
+    @EventListener
+    public void onShowMaterialized(ShowMaterialized materialized) {
+        unbookedGeneration.incrementAndGet();
+        unbookedIds.invalidate(materialized.virtualId());
     }
-}
 
+    /**
+     * Generation can write the row of a virtual show's slot too, so any
+     * change of shows drops the cached lookups.
+     */
+    @EventListener
+    public void onShowsChanged(ShowsChanged change) {
+        unbookedGeneration.incrementAndGet();
+        unbookedIds.invalidateAll();
+    }
+
+    /**
+     * The persisted show for an id, creating the row first if it is a virtual
+     * show that nobody has booked yet.
+     *
+     * @throws IllegalArgumentException if no such show exists
+     */
+    public ShowEntity materialize(Long showId) {
+        if (!isVirtualId(showId)) {
+            return showRepository.findById(showId)
+                    .orElseThrow(() -> new IllegalArgumentException("Show not found with id: " + showId));
+        }
+        ReentrantLock lock = materializeLocks[Math.floorMod(showId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Optional<ShowEntity> existing = findMaterialized(showId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            VirtualSlot slot = decode(showId)
+                    .orElseThrow(() -> new IllegalArgumentException("Show not found with id: " + showId));
+            ShowEntity saved = showRepository.save(slot.show());
+            materializedIds.put(showId, saved.getId());
+            eventPublisher.publishEvent(new ShowMaterialized(showId, saved.getId()));
+            eventPublisher.publishEvent(new ShowsChanged(saved.getVenue().getId()));
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<ShowEntity> withVirtualShows(List<ShowEntity> persisted, VenueEntity venue, LocalDate date,
+            Long tmdbMovieId) {
+        Set<String> taken = new HashSet<>();
+        for (ShowEntity show : persisted) {
+            if (show.getSchedule() != null) {
+                taken.add(show.getSchedule().getId() + "|" + show.getShowTime());
+            }
+        }
+        List<ShowEntity> result = new ArrayList<>(persisted);
+        for (MovieScheduleEntity schedule : movieScheduleRepository.findActiveForVenueOn(venue, date, Status.ACTIVE)) {
+            if (tmdbMovieId != null && !tmdbMovieId.equals(schedule.getTmdbMovieId())) {
+                continue;
+            }
+            List<ShowEntity> slots = movieScheduleService.buildShows(schedule, date, date);
+            int dayIndex = (int) ChronoUnit.DAYS.between(schedule.getStartDate(), date);
+            for (int timeIndex = 0; timeIndex < slots.size() && timeIndex < (1 << TIME_BITS); timeIndex++) {
+                ShowEntity show = slots.get(timeIndex);
+                if (taken.add(schedule.getId() + "|" + show.getShowTime())) {
+                    show.setId(virtualIdOf(schedule.getId(), dayIndex, timeIndex));
+                    result.add(show);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Optional<ShowEntity> findMaterialized(Long virtualId) {
+        Long known = materializedIds.get(virtualId);
+        if (known != null) {
+            Optional<ShowEntity> show = showRepository.findById(known);
+            if (show.isPresent()) {
+                return show;
+            }
+            materializedIds.remove(virtualId, known); // show was deleted since
+        }
+        Optional<ShowEntity> show = decode(virtualId).flatMap(slot -> showRepository
+                .findFirstByScheduleIdAndShowDateAndShowTime(slot.scheduleId(), slot.show().getShowDate(),
+                        slot.show().getShowTime()));
+        show.ifPresent(s -> materializedIds.put(virtualId, s.getId()));
+        return show;
+    }
+
+    // Unsaved show for a virtual id, or empty if the id does not match a live schedule slot
+    private Optional<VirtualSlot> decode(Long virtualId) {
+        long raw = -virtualId;
+        int timeIndex = (int) (raw & ((1L << TIME_BITS) - 1));
+        int dayIndex = (int) ((raw >>> TIME_BITS) & ((1L << DAY_BITS) - 1));
+        long scheduleId = raw >>> (TIME_BITS + DAY_BITS);
+        return movieScheduleRepository.findById(scheduleId)
+                .filter(schedule -> schedule.getStatus() == Status.ACTIVE)
+                .flatMap(schedule -> {
+                    LocalDate date = schedule.getStartDate().plusDays(dayIndex);
+                    if (date.isAfter(schedule.getEndDate())) {
+                        return Optional.empty();
+                    }
+                    List<ShowEntity> slots = movieScheduleService.buildShows(schedule, date, date);
+                    return timeIndex < slots.size()
+                            ? Optional.of(new VirtualSlot(scheduleId, slots.get(timeIndex)))
+                            : Optional.empty();
+                });
+    }
+
+    static long virtualIdOf(Long scheduleId, int dayIndex, int timeIndex) {
+        return -((scheduleId << (TIME_BITS + DAY_BITS)) | ((long) dayIndex << TIME_BITS) | timeIndex);
+    }
+
+    private record VirtualSlot(Long scheduleId, ShowEntity show) {
+    }
+
+    /**
+     * A virtual show got its row in the shows table.
+     */
+    public record ShowMaterialized(Long virtualId, Long showId) {
+    }
+
+    /**
+     * Shows of a venue were added, materialized or deleted.
+     */
+    public record ShowsChanged(Long venueId) {
+    }
+}
@@ -3,24 +3,96 @@ package com.excelr.service.impl;
 import com.excelr.entity.UserEntity;
 import com.excelr.entity.VenueEntity;
 import com.excelr.repository.VenueRepository;
+import com.excelr.service.CacheMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Venues, with the public listing and single venues served from a bounded
+ * in-process cache. Create, update and delete evict the affected entries and
+ * publish {@link VenueChanged}.
+ */
 @Service
 @RequiredArgsConstructor
 public class VenueServiceImpl {
 
+    private static final String ALL = "all";
+
     private final VenueRepository venueRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheMetrics cacheMetrics;
+
+    @Value("${catalog.cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    @Value("${catalog.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, List<VenueEntity>> venueLists;
+    private Cache<Long, Optional<VenueEntity>> venuesById;
+
+    @PostConstruct
+    void initCaches() {
+        venueLists = cacheMetrics.register("venues.list", Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build());
+        venuesById = cacheMetrics.register("venues.byId", Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build());
+    }
 
     public VenueEntity createVenue(VenueEntity venue, UserEntity owner) {
         venue.setOwner(owner);
-        return venueRepository.save(venue);
+        VenueEntity saved = venueRepository.save(venue);
+        evict(saved.getId());
+        return saved;
+    }
+
+    public VenueEntity updateVenue(VenueEntity venue) {
+        VenueEntity saved = venueRepository.save(venue);
+        evict(saved.getId());
+        return saved;
+    }
+
+    public void deleteVenue(Long id) {
+        venueRepository.deleteById(id);
+        evict(id);
+    }
+
+    public List<VenueEntity> getAllVenues() {
+        return venueLists.get(ALL, key -> List.copyOf(venueRepository.findAll()));
+    }
+
+    public Optional<VenueEntity> getVenue(Long id) {
+        return venuesById.get(id, venueRepository::findById);
     }
 
     public List<VenueEntity> getVenuesByOwner(UserEntity owner) {
         return venueRepository.findByOwner(owner);
     }
-}
 
+    private void evict(Long venueId) {
+        venueLists.invalidateAll();
+        venuesById.invalidate(venueId);
+        eventPublisher.publishEvent(new VenueChanged(venueId));
+    }
+
+    /**
+     * A venue was created, changed or deleted.
+     */
+    public record VenueChanged(Long venueId) {
+    }
+}
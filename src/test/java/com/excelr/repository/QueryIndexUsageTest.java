@@ -0,0 +1,159 @@
+package com.excelr.repository;
+
+import com.excelr.entity.Status;
+import com.excelr.entity.VenueEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls the hot queries production runs on an H2 stand-in (schema generated from the
+ * entities), captures the SQL Hibernate sends for each one and checks that
+ * EXPLAIN of that SQL is served by the composite index declared for it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.excelr.repository.QueryIndexUsageTest$SqlCapture"
+})
+class QueryIndexUsageTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ShowRepository showRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Autowired
+    private RatingAggregateRepository ratingAggregateRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @BeforeEach
+    void clearCapturedSql() {
+        SqlCapture.statements.clear();
+    }
+
+    @Test
+    void showsByVenueDateAndMovieUseVenueDateMovieIndex() {
+        VenueEntity venue = entityManager.getReference(VenueEntity.class, 1L);
+        showRepository.findByVenueAndShowDateAndTmdbMovieId(venue, DAY, 42L);
+        assertUsesIndex(lastSql(), "IDX_SHOWS_VENUE_DATE_MOVIE", 1L, DAY, 42L);
+
+        showRepository.findByVenueAndShowDate(venue, DAY);
+        assertUsesIndex(lastSql(), "IDX_SHOWS_VENUE_DATE_MOVIE", 1L, DAY);
+    }
+
+    @Test
+    void seatSeedingUsesShowSeatKey() {
+        bookingSeatRepository.findSeatLabelsByShowId(1L);
+        assertUsesIndex(lastSql(), "UK_BOOKING_SEATS_SHOW_SEAT", 1L);
+    }
+
+    @Test
+    void bookingListPageSeeksOnPrimaryKey() {
+        bookingRepository.findBookingListPage(100L, PageRequest.of(0, 50));
+        assertUsesIndex(lastSql(), "PRIMARY_KEY", 100L, 50);
+    }
+
+    @Test
+    void myBookingsSlicesSeekBookingsByUser() {
+        // H2 gives the user_id foreign key its own index and may pick that one; MySQL reuses
+        // idx_bookings_user_booked_at for it, so the check is that bookings are sought by user_id.
+        // A slice fetches one row more than the page size to know if there is a next page
+        bookingRepository.findUpcomingForUser(1L, DAY, PageRequest.of(0, 20));
+        assertUsesIndex(lastSql(), ": USER_ID = ?1 */", 1L, DAY, 21);
+
+        bookingRepository.findPastForUser(1L, DAY, PageRequest.of(0, 20));
+        assertUsesIndex(lastSql(), ": USER_ID = ?1 */", 1L, DAY, 21);
+    }
+
+    @Test
+    void ownerMovieBookingsUseMovieAndShowStatusIndexes() {
+        bookingRepository.findByShowTmdbMovieIdAndShowVenueOwnerIdAndStatus(42L, 7L, Status.CONFIRMED);
+        String sql = lastSql();
+        assertUsesIndex(sql, "IDX_SHOWS_MOVIE", 42L, 7L, "CONFIRMED");
+        assertUsesIndex(sql, "IDX_BOOKINGS_SHOW_STATUS", 42L, 7L, "CONFIRMED");
+    }
+
+    @Test
+    void ratingAggregateLookupsUseItemKey() {
+        ratingAggregateRepository.findByItemTypeAndItemId("movie", "42");
+        assertUsesIndex(lastSql(), "UK_RATING_AGGREGATES_ITEM", "movie", "42");
+
+        ratingAggregateRepository.findByItemTypeInAndItemIdIn(List.of("movie", "event"), List.of("42", "43"));
+        assertUsesIndex(lastSql(), "UK_RATING_AGGREGATES_ITEM", "movie", "event", "42", "43");
+    }
+
+    @Test
+    void wishlistLookupUsesUserItemIndex() {
+        wishlistRepository.findByUserIdAndItemIdAndType(1L, "42", "movie");
+        assertUsesIndex(lastSql(), "IDX_WISHLIST_USER_ITEM", 1L, "42", "movie");
+    }
+
+    private String lastSql() {
+        List<String> statements = SqlCapture.statements;
+        assertFalse(statements.isEmpty(), "No SQL captured");
+        return statements.get(statements.size() - 1);
+    }
+
+    /**
+     * EXPLAIN the captured SQL on the test's own connection, binding the
+     * finder's arguments in order to its JDBC parameters.
+     */
+    private void assertUsesIndex(String sql, String index, Object... params) {
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                StringBuilder rows = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return rows.toString().toUpperCase();
+            }
+        });
+        assertTrue(plan.contains(index), "Expected " + index + " in plan of:\n" + sql + "\n" + plan);
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares, unchanged.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.excelr.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT validation cost, as done by JwtAuthenticationFilter.
+ *
+ * legacyValidation reproduces the old path: the key is decoded and a parser
+ * built on every call, and the token is parsed three times (subject, subject
+ * again, expiration). cachedValidation is the current path: one parse with
+ * the precomputed parser, then the checks run on the claims.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.excelr.security.JwtValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtils jwtUtils;
+    private AuthUser principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+        jwtUtils.init();
+        principal = new AuthUser(42L, "user@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateToken(Map.of("id", 42L, "role", "USER"), principal);
+    }
+
+    @Benchmark
+    public boolean legacyValidation() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(principal.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return username != null && valid;
+    }
+
+    @Benchmark
+    public boolean cachedValidation() {
+        Claims claims = jwtUtils.parseClaims(token);
+        return claims.getSubject() != null && jwtUtils.isTokenValid(claims, principal)
+                && principal.getId().equals(jwtUtils.extractUserId(claims));
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package com.excelr.service;
+
+import com.excelr.entity.BookingEntity;
+import com.excelr.entity.BookingType;
+import com.excelr.entity.EventEntity;
+import com.excelr.entity.Status;
+import com.excelr.repository.BookingZonePassRepository;
+import com.excelr.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency stress test for zone capacity enforcement: many parallel buyers
+ * race for the same zones and the counters must never go past capacity.
+ */
+class ZoneInventoryServiceTest {
+
+    private static final String EVENT_CONFIG = """
+            {"dates":[{"id":"d1"}],
+             "zones":[{"name":"GA","capacity":500},{"name":"VIP","capacity":100}]}
+            """;
+
+    private ZoneInventoryService zoneInventoryService;
+
+    @BeforeEach
+    void setUp() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        BookingZonePassRepository bookingZonePassRepository = mock(BookingZonePassRepository.class);
+        EventEntity event = EventEntity.builder().id(1L).eventConfig(EVENT_CONFIG).status(Status.ACTIVE).build();
+        when(eventRepository.findById(anyLong())).thenReturn(Optional.of(event));
+        when(bookingZonePassRepository.sumPassesByZone(anyLong(), anyString())).thenReturn(List.of());
+        zoneInventoryService = new ZoneInventoryService(eventRepository, bookingZonePassRepository,
+                new ObjectMapper(), published -> {
+                });
+    }
+
+    @Test
+    void parallelBookingsNeverOversellASingleZone() throws Exception {
+        int buyers = 2000;
+        EventEntity event = EventEntity.builder().id(1L).build();
+        AtomicInteger confirmed = runBuyers(buyers, buyer -> zoneInventoryService.reserve(BookingEntity.builder()
+                .type(BookingType.EVENT)
+                .event(event)
+                .eventDateId("d1")
+                .bookingDetails("{\"selectedZones\":{\"GA\":{\"adult\":1}}}")
+                .build()));
+
+        ZoneInventoryService.ZoneCount ga = zoneInventoryService.getAvailability(1L, "d1").get("GA");
+        assertEquals(500, confirmed.get());
+        assertEquals(500, ga.booked());
+        assertEquals(0, ga.available());
+    }
+
+    @Test
+    void multiZoneBuyersRollBackAndNeverOversellEitherZone() throws Exception {
+        int buyers = 1500;
+        // Every buyer wants 1 GA + 1 VIP; some also want 2 children in GA
+        AtomicInteger confirmed = runBuyers(buyers, buyer -> {
+            Map<String, Map<String, Integer>> zones = Map.of(
+                    "GA", Map.of("adult", 1, "child", buyer % 2 == 0 ? 2 : 0),
+                    "VIP", Map.of("adult", 1));
+            zoneInventoryService.hold(1L, "d1", zones);
+            zoneInventoryService.confirmHold(1L, "d1", zones);
+        });
+
+        Map<String, ZoneInventoryService.ZoneCount> zones = zoneInventoryService.getAvailability(1L, "d1");
+        assertTrue(zones.get("GA").booked() <= 500);
+        assertTrue(zones.get("VIP").booked() <= 100);
+        // VIP (100 single passes) is the bottleneck; each success takes exactly one VIP pass
+        assertEquals(confirmed.get(), zones.get("VIP").booked());
+        assertEquals(0, zones.get("GA").held());
+    }
+
+    @Test
+    void mixedSignPassCountsAreRejectedAndTakeNoCapacity() throws Exception {
+        int buyers = 2000;
+        EventEntity event = EventEntity.builder().id(1L).build();
+        AtomicInteger rejected = new AtomicInteger();
+        // Every other buyer sends counts that net to zero (10 adults, -10 children)
+        AtomicInteger confirmed = runBuyers(buyers, buyer -> {
+            String zones = buyer % 2 == 0
+                    ? "{\"GA\":{\"adult\":10,\"child\":-10}}"
+                    : "{\"GA\":{\"adult\":1}}";
+            try {
+                zoneInventoryService.reserve(BookingEntity.builder()
+                        .type(BookingType.EVENT)
+                        .event(event)
+                        .eventDateId("d1")
+                        .bookingDetails("{\"selectedZones\":" + zones + "}")
+                        .build());
+            } catch (IllegalArgumentException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        ZoneInventoryService.ZoneCount ga = zoneInventoryService.getAvailability(1L, "d1").get("GA");
+        assertEquals(buyers / 2, rejected.get());
+        assertEquals(500, confirmed.get() - rejected.get());
+        assertEquals(500, ga.booked());
+        assertEquals(0, ga.available());
+    }
+
+    @Test
+    void holdsCountAgainstCapacityUntilReleased() {
+        zoneInventoryService.hold(1L, "d1", Map.of("VIP", Map.of("adult", 100)));
+        ZoneInventoryService.ZonesSoldOutException soldOut = assertThrows(
+                ZoneInventoryService.ZonesSoldOutException.class,
+                () -> zoneInventoryService.hold(1L, "d1", Map.of("VIP", Map.of("adult", 1))));
+        assertEquals(List.of("VIP"), soldOut.getZones());
+        zoneInventoryService.releaseHold(1L, "d1", Map.of("VIP", Map.of("adult", 100)));
+        assertEquals(100, zoneInventoryService.getAvailability(1L, "d1").get("VIP").available());
+    }
+
+    private AtomicInteger runBuyers(int buyers, IntConsumer purchase) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(buyers);
+        AtomicInteger confirmed = new AtomicInteger();
+        for (int i = 0; i < buyers; i++) {
+            int buyer = i;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    purchase.accept(buyer);
+                    confirmed.incrementAndGet();
+                } catch (ZoneInventoryService.ZonesSoldOutException e) {
+                    // expected once the zone is gone
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        return confirmed;
+    }
+}